@@ -0,0 +1,63 @@
+package matrix;
+
+import java.util.PrimitiveIterator;
+
+import static java.util.Objects.checkFromIndexSize;
+
+record ArraySlice(double[] data, int offset, int length, int stride) implements VectorView {
+    /*
+        A vector view reading directly from a primitive array:
+            v_i = data[offset + i * stride]
+
+        Rows and columns of dense matrices are array slices (one of them with unit stride),
+        so that random access, sub-viewing and bulk copies are all direct array accesses.
+     */
+
+    ArraySlice {
+        assert length >= 0;
+        assert length == 0 || offset + (length - 1) * stride < data.length;
+    }
+
+    static ArraySlice of(double... data) {
+        return new ArraySlice(data, 0, data.length, 1);
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        class Impl implements PrimitiveIterator.OfDouble {
+            int cursor = 0;
+
+            @Override
+            public double nextDouble() {
+                return data[offset + stride * cursor++];
+            }
+
+            @Override
+            public boolean hasNext() {
+                return cursor < length;
+            }
+        }
+        return new Impl();
+    }
+
+    @Override
+    public double get(int index) {
+        return data[offset + index * stride];
+    }
+
+    @Override
+    public void copyInto(double[] dst, int dstOffset) {
+        if (stride == 1) System.arraycopy(data, offset, dst, dstOffset, length);
+        else for (int i = 0; i < length; i++) dst[dstOffset + i] = data[offset + i * stride];
+    }
+
+    @Override
+    public VectorView subView(int skip, int l) {
+        /*
+            The slice shares the buffer of its neighbours (other rows of the same matrix): it must not overflow,
+            and is checked whether assertions are enabled or not
+         */
+        checkFromIndexSize(skip, l, length);
+        return new ArraySlice(data, offset + skip * stride, l, stride);
+    }
+}
@@ -0,0 +1,224 @@
+package matrix;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+record BandMatrix(int colSize, int rowSize, int lower, int upper, double[] data) implements InPlaceOperand {
+    /*
+        A matrix whose non-zero entries all lie in a band around the diagonal:
+            A_{ij} = 0      whenever j < i - lower or j > i + upper
+        The shape is part of the type: tridiagonal (lower = upper = 1), upper Hessenberg (lower = 1),
+        upper triangular (lower = 0) or lower triangular (upper = 0) matrices need no scan to be recognized.
+
+        Only the band is stored, row by row, every row on w = lower + upper + 1 slots:
+            A_{ij} = data[i * w + (j - i + lower)]
+        the slots of the first and last rows falling outside of the matrix being left at zero.
+        Memory is O(m w) instead of O(m n), and so are products by vectors.
+        Rows are contiguous runs of the array, and columns are runs of stride w - 1.
+
+        This only pays off for narrow bands. Hessenberg and triangular matrices have a band as wide
+        as the matrix: their storage is m n slots (m (n + 1) for Hessenberg ones), no less than a dense array,
+        and half of it holds the zeros of the other triangle. These shapes only gain the structural metadata
+        (isHessenberg, isUpperTriangular, and the fast paths which read them), not memory.
+     */
+
+    BandMatrix {
+        assert colSize >= 0 && rowSize >= 0;
+        assert lower >= 0 && upper >= 0;
+        assert data.length >= colSize * (lower + upper + 1);
+    }
+
+    static BandMatrix zeros(int colSize, int rowSize, int lower, int upper) {
+        /* Bandwidths beyond the matrix itself are useless, and are cut down */
+        lower = max(min(lower, colSize - 1), 0);
+        upper = max(min(upper, rowSize - 1), 0);
+        return new BandMatrix(colSize, rowSize, lower, upper, new double[colSize * (lower + upper + 1)]);
+    }
+
+    static BandMatrix copyOf(Matrix M, int lower, int upper) {
+        /* The band of any matrix: entries outside of it are assumed to be zero, and are not read */
+        var band = zeros(M.colSize(), M.rowSize(), lower, upper);
+        for (int i = 0; i < band.colSize; i++) {
+            var row = M.getRow(i);
+            for (int j = band.firstColumn(i); j <= band.lastColumn(i); j++) band.setEntry(i, j, row.get(j));
+        }
+        return band;
+    }
+
+    static BandMatrix tridiagonal(double[] sub, double[] diagonal, double[] sup) {
+        /* The n x n tridiagonal matrix of the given diagonals (sub and sup of length n - 1) */
+        int n = diagonal.length;
+        assert sub.length == max(n - 1, 0) && sup.length == max(n - 1, 0);
+        var band = zeros(n, n, 1, 1);
+        for (int i = 0; i < n; i++) {
+            band.setEntry(i, i, diagonal[i]);
+            if (i > 0) band.setEntry(i, i - 1, sub[i - 1]);
+            if (i < n - 1) band.setEntry(i, i + 1, sup[i]);
+        }
+        return band;
+    }
+
+    static BandMatrix hessenberg(Matrix M) {
+        /* Tags M as upper Hessenberg; the band spans the whole upper triangle, and takes as much memory as M */
+        return copyOf(M, 1, M.rowSize());
+    }
+
+    static BandMatrix upperTriangular(Matrix M) {
+        /* Tags M as upper triangular; the band spans the whole triangle, and takes as much memory as M */
+        return copyOf(M, 0, M.rowSize());
+    }
+
+    static BandMatrix lowerTriangular(Matrix M) {
+        /* Tags M as lower triangular; the band spans the whole triangle, and takes as much memory as M */
+        return copyOf(M, M.colSize(), 0);
+    }
+
+    int width() {
+        return lower + upper + 1;
+    }
+
+    boolean isUpperTriangular() {
+        return lower == 0;
+    }
+
+    boolean isHessenberg() {
+        return lower <= 1;
+    }
+
+    boolean isSymmetricTridiagonal() {
+        /* Square, tridiagonal and equal to its transpose: a O(n) check on the stored band only */
+        if (colSize != rowSize || lower > 1 || upper > 1) return false;
+        for (int i = 1; i < colSize; i++) if (getEntry(i, i - 1) != getEntry(i - 1, i)) return false;
+        return true;
+    }
+
+    Tridiagonal toTridiagonal() {
+        /* The same matrix, in the storage of the symmetric QL iteration (see Tridiagonal) */
+        assert isSymmetricTridiagonal();
+        int n = colSize;
+        double[] d = new double[n], e = new double[n];
+        for (int i = 0; i < n; i++) {
+            d[i] = getEntry(i, i);
+            if (i < n - 1) e[i] = getEntry(i + 1, i);
+        }
+        return new Tridiagonal(d, e);
+    }
+
+    int firstColumn(int row) {
+        return max(0, row - lower);
+    }
+
+    int lastColumn(int row) {
+        return min(rowSize - 1, row + upper);
+    }
+
+    int firstRow(int column) {
+        return max(0, column - upper);
+    }
+
+    int lastRow(int column) {
+        return min(colSize - 1, column + lower);
+    }
+
+    boolean inBand(int rowIndex, int colIndex) {
+        return colIndex >= rowIndex - lower && colIndex <= rowIndex + upper;
+    }
+
+    int indexOf(int rowIndex, int colIndex) {
+        return rowIndex * width() + colIndex - rowIndex + lower;
+    }
+
+    @Override
+    public double getEntry(int rowIndex, int colIndex) {
+        return inBand(rowIndex, colIndex) ? data[indexOf(rowIndex, colIndex)] : 0D;
+    }
+
+    void setEntry(int rowIndex, int colIndex, double value) {
+        assert inBand(rowIndex, colIndex) : "Out of the band";
+        data[indexOf(rowIndex, colIndex)] = value;
+    }
+
+    void addToEntry(int rowIndex, int colIndex, double value) {
+        assert inBand(rowIndex, colIndex) : "Out of the band";
+        data[indexOf(rowIndex, colIndex)] += value;
+    }
+
+    @Override
+    public BandSlice getRow(int index) {
+        /* Rows of tall matrices may miss the band: the empty band is then anchored at offset 0, as in BandSlice */
+        int first = firstColumn(index), count = max(lastColumn(index) - first + 1, 0);
+        int offset = count == 0 ? 0 : indexOf(index, first);
+        return new BandSlice(rowSize, min(first, rowSize), new ArraySlice(data, offset, count, 1));
+    }
+
+    @Override
+    public BandSlice getColumn(int index) {
+        /* Same for the columns of wide matrices, whose first row would point past the end of the data */
+        int first = firstRow(index), count = max(lastRow(index) - first + 1, 0);
+        int offset = count == 0 ? 0 : indexOf(first, index);
+        return new BandSlice(colSize, min(first, colSize), new ArraySlice(data, offset, count, width() - 1));
+    }
+
+    @Override
+    public VectorView apply(VectorView vec) {
+        /* A * v in O(m w), computed at once: every entry is the dot product of the band of a row against v */
+        var x = vec.toArray();
+        assert x.length == rowSize;
+        double[] y = new double[colSize];
+        for (int i = 0; i < colSize; i++) y[i] = getRow(i).dot(x);
+        return ArraySlice.of(y);
+    }
+
+    @Override
+    public BandMatrix transpose() {
+        /* The bands swap: a copy in O(m w) */
+        var transposed = zeros(rowSize, colSize, upper, lower);
+        for (int i = 0; i < colSize; i++)
+            for (int j = firstColumn(i); j <= lastColumn(i); j++) transposed.setEntry(j, i, getEntry(i, j));
+        return transposed;
+    }
+
+    @Override
+    public Matrix composeLeft(Matrix rightFactor) {
+        /*
+            The product of two band matrices is a band matrix again, whose bandwidths are the sums of theirs:
+            it is computed at once, in O(m w w') where w and w' are the widths of the factors.
+            Other factors make the usual lazy product (whose rows, read against this band, are cheap as well).
+         */
+        if (!(rightFactor instanceof BandMatrix right)) return InPlaceOperand.super.composeLeft(rightFactor);
+        assert rowSize == right.colSize;
+        var product = zeros(colSize, right.rowSize, lower + right.lower, upper + right.upper);
+        for (int i = 0; i < colSize; i++)
+            for (int k = firstColumn(i); k <= lastColumn(i); k++) {
+                double a = getEntry(i, k);
+                if (a == 0D) continue;
+                for (int j = right.firstColumn(k); j <= right.lastColumn(k); j++)
+                    product.addToEntry(i, j, a * right.getEntry(k, j));
+            }
+        return product;
+    }
+
+    static void multiply(CoordinatesBased a, CoordinatesBased b, DenseMatrix c) {
+        /*
+            C := C + A * B, as Gemm.multiply, where A or B is a band matrix (of width w):
+            only the band is visited, in O(m n w) instead of O(m n k).
+         */
+        int m = a.colSize(), n = b.rowSize();
+        assert a.rowSize() == b.colSize() && c.colSize() == m && c.rowSize() == n;
+        if (a instanceof BandMatrix band) {
+            for (int i = 0; i < m; i++)
+                for (int k = band.firstColumn(i); k <= band.lastColumn(i); k++) {
+                    double alpha = band.getEntry(i, k);
+                    for (int j = 0; j < n; j++) c.addToEntry(i, j, alpha * b.getEntry(k, j));
+                }
+        } else if (b instanceof BandMatrix band) {
+            for (int j = 0; j < n; j++)
+                for (int k = band.firstRow(j); k <= band.lastRow(j); k++) {
+                    double beta = band.getEntry(k, j);
+                    for (int i = 0; i < m; i++) c.addToEntry(i, j, a.getEntry(i, k) * beta);
+                }
+        } else {
+            Gemm.multiply(a, b, c);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package matrix;
+
+import java.util.Arrays;
+
+import static java.lang.Math.hypot;
+
+record BandQR(BandMatrix r, int lower, double[] cosines, double[] sines) {
+    /*
+        QR factorization of a m x n band matrix A (m >= n), of bandwidths p below and q above the diagonal,
+        by Givens rotations.
+
+        For every column j, the (at most p) entries below the diagonal are cancelled one by one,
+        every time by the rotation of the rows j and i (j < i <= j + p) that sends A_{ij} onto A_{jj}.
+        Both rows end by column j + p + q at most: a rotation costs O(p + q), and the whole factorization
+        O(n p (p + q)) instead of O(m n^2). R is upper triangular with bandwidth p + q, and stored as such.
+
+        Q is kept as its rotations: the one of the rows (j, j + 1 + t) is (cosines[j p + t], sines[j p + t]).
+     */
+
+    static BandQR of(BandMatrix A) {
+        int m = A.colSize(), n = A.rowSize(), p = A.lower(), q = A.upper();
+        assert m >= n;
+        var work = BandMatrix.zeros(m, n, p, p + q);
+        for (int i = 0; i < m; i++)
+            for (int j = A.firstColumn(i); j <= A.lastColumn(i); j++) work.setEntry(i, j, A.getEntry(i, j));
+
+        double[] cosines = new double[n * p], sines = new double[n * p];
+        for (int j = 0; j < n; j++)
+            for (int t = 0; t < p; t++) {
+                int i = j + 1 + t;
+                cosines[j * p + t] = 1D;
+                if (i >= m) continue;
+                double a = work.getEntry(j, j), b = work.getEntry(i, j);
+                double rho = hypot(a, b);
+                if (rho == 0D) continue;
+                double c = a / rho, s = b / rho;
+                cosines[j * p + t] = c;
+                sines[j * p + t] = s;
+                for (int k = j; k <= work.lastColumn(j); k++) {
+                    double x = work.getEntry(j, k), y = work.getEntry(i, k);
+                    work.setEntry(j, k, c * x + s * y);
+                    work.setEntry(i, k, c * y - s * x);
+                }
+                work.setEntry(i, j, 0D);
+            }
+
+        var r = BandMatrix.zeros(n, n, 0, p + q);
+        for (int i = 0; i < n; i++)
+            for (int j = i; j <= r.lastColumn(i); j++) r.setEntry(i, j, work.getEntry(i, j));
+        return new BandQR(r, p, cosines, sines);
+    }
+
+    void applyQTranspose(double[] b) {
+        /* b := Q^T b, replaying the rotations in the order of the factorization, in O(n p) */
+        int n = r.rowSize();
+        for (int j = 0; j < n; j++)
+            for (int t = 0; t < lower && j + 1 + t < b.length; t++) {
+                int i = j + 1 + t;
+                double c = cosines[j * lower + t], s = sines[j * lower + t];
+                double x = b[j], y = b[i];
+                b[j] = c * x + s * y;
+                b[i] = c * y - s * x;
+            }
+    }
+
+    VectorView solve(VectorView b) {
+        /* The least squares solution of A x = b (the solution itself, when A is square and invertible) */
+        var y = b.toArray();
+        applyQTranspose(y);
+        int n = r.rowSize();
+        Triangular.backSubstitute(r, r.upper(), y, 0, n);
+        return ArraySlice.of(Arrays.copyOf(y, n));
+    }
+}
@@ -0,0 +1,80 @@
+package matrix;
+
+import java.util.PrimitiveIterator;
+
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.checkIndex;
+
+record BandSlice(int length, int first, ArraySlice band) implements SparseVectorView {
+    /*
+        A row (or column) of a BandMatrix: the entries first, ..., first + band.length() - 1 are read from the band,
+        all the others are zero.
+        Products against it only read the band: in O(bandwidth) instead of O(n).
+     */
+
+    BandSlice {
+        assert first >= 0 && first + band.length() <= length;
+    }
+
+    @Override
+    public int nonZeros() {
+        return band.length();
+    }
+
+    @Override
+    public int index(int k) {
+        return first + k;
+    }
+
+    @Override
+    public double value(int k) {
+        return band.get(k);
+    }
+
+    @Override
+    public double dot(double[] x) {
+        /* A contiguous band (a row) goes through the kernels */
+        if (band.stride() == 1) return Kernels.current().dot(band.data(), band.offset(), x, first, band.length());
+        return SparseVectorView.super.dot(x);
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        class Impl implements PrimitiveIterator.OfDouble {
+            int cursor = 0;
+
+            @Override
+            public double nextDouble() {
+                return get(cursor++);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return cursor < length;
+            }
+        }
+        return new Impl();
+    }
+
+    @Override
+    public double get(int index) {
+        checkIndex(index, length);
+        int k = index - first;
+        return k >= 0 && k < band.length() ? band.get(k) : 0D;
+    }
+
+    @Override
+    public void copyInto(double[] dst, int offset) {
+        for (int i = 0; i < first; i++) dst[offset + i] = 0D;
+        band.copyInto(dst, offset + first);
+        for (int i = first + band.length(); i < length; i++) dst[offset + i] = 0D;
+    }
+
+    @Override
+    public VectorView subView(int skip, int l) {
+        checkFromIndexSize(skip, l, length);
+        int from = Math.max(skip - first, 0), to = Math.min(skip + l - first, band.length());
+        if (to <= from) return new BandSlice(l, 0, new ArraySlice(band.data(), band.offset(), 0, band.stride()));
+        return new BandSlice(l, first + from - skip, (ArraySlice) band.subView(from, to - from));
+    }
+}
@@ -0,0 +1,132 @@
+package matrix;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+record BatchEigenSolver(EigenValueSolver solver, Executor executor, int tasks) {
+    /*
+        Eigenvalues of many (small) square matrices at once.
+
+        Matrices are dealt in contiguous chunks to tasks submitted to the executor:
+        a fixed pool of platform threads, the common fork-join pool, or a virtual-thread executor on runtimes having them.
+        Every task solves its matrices one after the other, in an EigenWorkspace of its own,
+        so that buffers are allocated once per task and not once per matrix.
+        Workspaces live as long as the batch call: pool threads (which may live as long as the JVM)
+        do not keep the buffers of the largest matrix they ever saw.
+        Within a batch, every matrix is solved sequentially (the parallelism of the solver is ignored).
+
+        Results land in a single packed array: for the matrix i of size n, starting at offsets[i],
+            n real parts, then n imaginary parts,
+        sorted by decreasing modulus, as by EigenValueSolver.spectrum.
+     */
+
+    BatchEigenSolver {
+        assert tasks >= 1;
+    }
+
+    static BatchEigenSolver of(EigenValueSolver solver) {
+        return new BatchEigenSolver(solver, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    record Spectra(double[] values, int[] offsets, int[] iterationsLeft) {
+        /* The packed results of a batch: offsets has one more entry than there are matrices */
+
+        int size() {
+            return iterationsLeft.length;
+        }
+
+        int dimension(int index) {
+            return (offsets[index + 1] - offsets[index]) / 2;
+        }
+
+        Spectrum get(int index) {
+            int n = dimension(index), from = offsets[index];
+            return new Spectrum(
+                    Arrays.copyOfRange(values, from, from + n),
+                    Arrays.copyOfRange(values, from + n, from + 2 * n),
+                    iterationsLeft[index]
+            );
+        }
+    }
+
+    Spectra solve(Stream<? extends Matrix> matrices) {
+        return solve(matrices.toList());
+    }
+
+    Spectra solve(Collection<? extends Matrix> matrices) {
+        /* Symmetric matrices (instances of SymmetricMatrix) go through the tridiagonal path */
+        List<? extends Matrix> list = List.copyOf(matrices);
+        int[] offsets = new int[list.size() + 1];
+        for (int i = 0; i < list.size(); i++) {
+            assert list.get(i).rowSize() == list.get(i).colSize();
+            offsets[i + 1] = offsets[i] + 2 * list.get(i).rowSize();
+        }
+        double[] values = new double[offsets[list.size()]];
+        int[] iterationsLeft = new int[list.size()];
+        forEachChunk(list.size(), (index, workspace) -> {
+            var M = list.get(index);
+            int n = M.rowSize();
+            var work = workspace.square(n);
+            if (M instanceof DenseMatrix dense) work.assign(dense);
+            else for (int i = 0; i < n; i++) M.getRow(i).copyInto(work.data(), i * n);
+            iterationsLeft[index] = solveInto(work, M instanceof SymmetricMatrix, workspace, values, offsets[index]);
+        });
+        return new Spectra(values, offsets, iterationsLeft);
+    }
+
+    Spectra solve(double[] packed, int n, boolean symmetric) {
+        /* Matrices of size n x n, stored one after the other, every one row after row */
+        int count = n == 0 ? 0 : packed.length / (n * n);
+        assert count * n * n == packed.length : "The packed array does not hold whole matrices";
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) offsets[i + 1] = offsets[i] + 2 * n;
+        double[] values = new double[2 * n * count];
+        int[] iterationsLeft = new int[count];
+        forEachChunk(count, (index, workspace) -> {
+            var work = workspace.square(n);
+            System.arraycopy(packed, index * n * n, work.data(), 0, n * n);
+            iterationsLeft[index] = solveInto(work, symmetric, workspace, values, offsets[index]);
+        });
+        return new Spectra(values, offsets, iterationsLeft);
+    }
+
+    private int solveInto(DenseMatrix work, boolean symmetric, EigenWorkspace workspace, double[] values, int offset) {
+        int n = work.rowSize();
+        int iterationsLeft = solver.spectrumInPlace(work, symmetric, workspace);
+        System.arraycopy(workspace.real(), 0, values, offset, n);
+        System.arraycopy(workspace.imaginary(), 0, values, offset + n, n);
+        return iterationsLeft;
+    }
+
+    private interface Job {
+        void solve(int index, EigenWorkspace workspace);
+    }
+
+    private void forEachChunk(int count, Job job) {
+        int chunks = max(1, min(tasks, count));
+        var futures = new CompletableFuture<?>[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) count * c / chunks), to = (int) ((long) count * (c + 1) / chunks);
+            futures[c] = CompletableFuture.runAsync(() -> {
+                var workspace = new EigenWorkspace();
+                for (int index = from; index < to; index++) job.solve(index, workspace);
+            }, executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
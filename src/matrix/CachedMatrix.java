@@ -0,0 +1,110 @@
+package matrix;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+final class CachedMatrix implements Matrix {
+    /*
+        Opt-in memoization of the rows and columns of a (lazy) matrix.
+
+        Reading a row or a column of a lazy matrix recomputes it from scratch every time.
+        Decorating the matrix stores every slice that is read as a primitive array,
+        so that later reads of the same slice are plain array reads.
+
+        The cache is bounded by a budget in bytes (eight per stored entry) and evicts
+        the least recently used slices first, in a LinkedHashMap kept in access order.
+        A slice larger than the whole budget is never stored.
+
+        Reads may happen from several threads: the cache itself is guarded by the decorator's lock,
+        but slices are computed outside of it, so that a slow slice does not block the others.
+     */
+
+    private record Key(boolean row, int index) {}
+
+    private final Matrix source;
+    private final long byteBudget;
+    private final LinkedHashMap<Key, double[]> slices = new LinkedHashMap<>(16, 0.75F, true);
+    private long cachedBytes, hits, misses, evictions;
+
+    private CachedMatrix(Matrix source, long byteBudget) {
+        this.source = source;
+        this.byteBudget = byteBudget;
+    }
+
+    static CachedMatrix of(Matrix source, long byteBudget) {
+        assert byteBudget >= 0L;
+        return new CachedMatrix(source, byteBudget);
+    }
+
+    Matrix source() {
+        return source;
+    }
+
+    @Override
+    public int rowSize() {
+        return source.rowSize();
+    }
+
+    @Override
+    public int colSize() {
+        return source.colSize();
+    }
+
+    @Override
+    public VectorView getRow(int index) {
+        return slice(new Key(true, index));
+    }
+
+    @Override
+    public VectorView getColumn(int index) {
+        return slice(new Key(false, index));
+    }
+
+    private VectorView slice(Key key) {
+        double[] values;
+        synchronized (this) {
+            values = slices.get(key);
+            if (values != null) hits++;
+            else misses++;
+        }
+        if (values == null) {
+            values = (key.row() ? source.getRow(key.index()) : source.getColumn(key.index())).toArray();
+            store(key, values);
+        }
+        return new ArraySlice(values, 0, values.length, 1);
+    }
+
+    private synchronized void store(Key key, double[] values) {
+        long bytes = Double.BYTES * (long) values.length;
+        if (bytes > byteBudget) return;
+        var previous = slices.put(key, values);
+        if (previous != null) cachedBytes -= Double.BYTES * (long) previous.length;
+        cachedBytes += bytes;
+        for (Iterator<double[]> eldest = slices.values().iterator(); cachedBytes > byteBudget; ) {
+            cachedBytes -= Double.BYTES * (long) eldest.next().length;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+
+    synchronized void clear() {
+        slices.clear();
+        cachedBytes = 0L;
+    }
+}
@@ -0,0 +1,153 @@
+package matrix;
+
+import static java.lang.Math.*;
+
+record CompactQR(DenseMatrix factors, double[] tau) {
+    /*
+        In-place QR factorization of a m x n matrix A, in the spirit of LAPACK's geqrf:
+
+            - R is stored in the upper triangle of the factors (diagonal included),
+            - the Householder vectors are stored below the diagonal,
+            - tau holds the scaling factor of every reflector.
+
+        The k-th reflector reads
+            H_k = Id - tau_k v_k v_k^T
+        where v_k is zero above k, one at k, and the factors column k below the diagonal.
+        We have
+            Q = H_0 * H_1 * ... * H_{p-1}      (p = min(m, n))
+        and Q is never formed, unless explicitly asked for.
+
+        The whole factorization lives in the buffer of A, plus the p coefficients of tau.
+     */
+
+    CompactQR {
+        assert tau.length == min(factors.colSize(), factors.rowSize());
+    }
+
+    static CompactQR of(Matrix A) {
+        return inPlace(DenseMatrix.copyOf(A, DenseMatrix.Layout.COLUMN_MAJOR));
+    }
+
+    static CompactQR inPlace(DenseMatrix a) {
+        /*
+            Householder vectors are generated column by column, and applied to the trailing columns.
+            A column-major buffer is the natural layout here, but any layout will do.
+         */
+        int m = a.colSize(), n = a.rowSize(), p = min(m, n);
+        double[] tau = new double[p];
+        for (int k = 0; k < p; k++) {
+            tau[k] = generateReflector(a, k);
+            for (int j = k + 1; j < n; j++) reflectColumn(a, k, tau[k], a, j);
+        }
+        return new CompactQR(a, tau);
+    }
+
+    private static double generateReflector(DenseMatrix a, int k) {
+        /*
+            Given the column x = a[k.., k], finds tau and v (v_0 = 1) such that
+                (Id - tau v v^T) x = beta e_0
+            The sign of beta is chosen opposite to x_0, to avoid cancellations.
+            The vector v (except v_0) overwrites x below the diagonal, and beta lands on the diagonal.
+         */
+        int m = a.colSize();
+        double alpha = a.getEntry(k, k);
+        double tailSquares = 0D;
+        for (int i = k + 1; i < m; i++) tailSquares += a.getEntry(i, k) * a.getEntry(i, k);
+        if (tailSquares == 0D) return 0D;
+
+        double tailNorm = sqrt(tailSquares);
+        double beta = -copySign(hypot(alpha, tailNorm), alpha);
+        double scale = 1D / (alpha - beta);
+        for (int i = k + 1; i < m; i++) a.setEntry(i, k, a.getEntry(i, k) * scale);
+        a.setEntry(k, k, beta);
+        return (beta - alpha) / beta;
+    }
+
+    private static void reflectColumn(DenseMatrix a, int k, double tau, DenseMatrix B, int j) {
+        /* B[.., j] := (Id - tau v_k v_k^T) B[.., j] in O(m - k) */
+        if (tau == 0D) return;
+        int m = a.colSize();
+        if (a.layout() == DenseMatrix.Layout.COLUMN_MAJOR && B.layout() == DenseMatrix.Layout.COLUMN_MAJOR) {
+            /* Both columns are contiguous runs: dot and axpy on the kernels */
+            var kernels = Kernels.current();
+            int v = a.indexOf(k + 1, k), b = B.indexOf(k + 1, j);
+            double s = tau * (B.getEntry(k, j) + kernels.dot(a.data(), v, B.data(), b, m - k - 1));
+            B.addToEntry(k, j, -s);
+            kernels.axpy(-s, a.data(), v, B.data(), b, m - k - 1);
+            return;
+        }
+        double s = B.getEntry(k, j);
+        for (int i = k + 1; i < m; i++) s += a.getEntry(i, k) * B.getEntry(i, j);
+        s *= tau;
+        B.addToEntry(k, j, -s);
+        for (int i = k + 1; i < m; i++) B.addToEntry(i, j, -s * a.getEntry(i, k));
+    }
+
+    int reflectorCount() {
+        return tau.length;
+    }
+
+    void applyQ(DenseMatrix B) {
+        /* B := Q * B = H_0 * (H_1 * ( ... (H_{p-1} * B))) */
+        assert B.colSize() == factors.colSize();
+        for (int k = tau.length - 1; k >= 0; k--)
+            for (int j = 0; j < B.rowSize(); j++) reflectColumn(factors, k, tau[k], B, j);
+    }
+
+    void applyQTranspose(DenseMatrix B) {
+        /* B := Q^T * B = H_{p-1} * ( ... (H_1 * (H_0 * B))), each H_k being symmetric */
+        assert B.colSize() == factors.colSize();
+        for (int k = 0; k < tau.length; k++)
+            for (int j = 0; j < B.rowSize(); j++) reflectColumn(factors, k, tau[k], B, j);
+    }
+
+    DenseMatrix solve(Matrix B) {
+        /*
+            The least squares solution X (n x k) of A X = B, for the k columns of B at once
+            (the solution itself, when A is square and invertible). A must have full column rank, and m >= n.
+
+                Y = Q^T B       the reflectors are applied implicitly, Q is never formed,
+                R X = Y_top     back substitution against R, on the n first rows of Y.
+            The m - n last rows of Y are the components of the residuals B - A X orthogonal to the range of A:
+            their norm is the one of the residual, and they are simply dropped.
+
+            Once A is factored, every right-hand side costs O(m n): k of them cost one factorization plus k
+            such solves, and no instability comes from forming Q. Both steps run column by column of Y,
+            on contiguous runs of column-major buffers (see Kernels).
+         */
+        int m = factors.colSize(), n = factors.rowSize();
+        assert m >= n && B.colSize() == m;
+        var y = DenseMatrix.copyOf(B, DenseMatrix.Layout.COLUMN_MAJOR);
+        applyQTranspose(y);
+        var x = y.subMatrix(0, 0, n, y.rowSize());
+        /* The columns of x are contiguous runs of the column-major buffer of y */
+        for (int j = 0; j < x.rowSize(); j++) Triangular.backSubstitute(factors, n - 1, x.data(), x.indexOf(0, j), n);
+        return x.copy();
+    }
+
+    VectorView solve(VectorView b) {
+        return solve(DenseMatrix.ofColumn(b.toArray())).getColumn(0);
+    }
+
+    DenseMatrix formQ() {
+        /*
+            Forms the thin factor Q (m x p), by applying the reflectors to the p first columns of the identity.
+            For square matrices, this is the full orthogonal factor.
+         */
+        int m = factors.colSize(), p = tau.length;
+        var q = DenseMatrix.zeros(m, p, DenseMatrix.Layout.COLUMN_MAJOR);
+        for (int k = 0; k < p; k++) q.setEntry(k, k, 1D);
+        applyQ(q);
+        return q;
+    }
+
+    DenseMatrix r() {
+        /* Copies the upper-triangular factor R (p x n) out of the factors */
+        int n = factors.rowSize(), p = tau.length;
+        var r = DenseMatrix.zeros(p, n);
+        for (int i = 0; i < p; i++)
+            for (int j = i; j < n; j++)
+                r.setEntry(i, j, factors.getEntry(i, j));
+        return r;
+    }
+}
@@ -48,6 +48,21 @@ interface CoordinatesBased extends Matrix {
                 return new RowBasedVue();
             }
 
+            @Override
+            public int length() {
+                return length;
+            }
+
+            @Override
+            public double get(int i) {
+                return getEntry(index, skip + i);
+            }
+
+            @Override
+            public void copyInto(double[] dst, int offset) {
+                for(int i = 0; i < length; i++) dst[offset + i] = getEntry(index, skip + i);
+            }
+
             @Override
             public VectorView subView(int s, int l) {
                 return getRowSlice(index, s+skip, l);
@@ -82,6 +97,21 @@ interface CoordinatesBased extends Matrix {
                 return new ColBasedView();
             }
 
+            @Override
+            public int length() {
+                return length;
+            }
+
+            @Override
+            public double get(int i) {
+                return getEntry(skip + i, index);
+            }
+
+            @Override
+            public void copyInto(double[] dst, int offset) {
+                for(int i = 0; i < length; i++) dst[offset + i] = getEntry(skip + i, index);
+            }
+
             @Override
             public VectorView subView(int s, int l) {
                 return getColumnSlice(index, s+skip, l);
@@ -0,0 +1,197 @@
+package matrix;
+
+import static java.util.Objects.checkFromIndexSize;
+
+record DenseMatrix(double[] data, int offset, int leadingDimension, int colSize, int rowSize, Layout layout)
+        implements CoordinatesBased {
+    /*
+        A dense matrix backed by a single flat array.
+
+        With the conventions of the package, colSize is the number of rows
+        and rowSize is the number of columns. The entry (i, j) lives at
+            offset + i * ld + j        (row-major)
+            offset + j * ld + i        (column-major)
+        where ld is the leading dimension, that is: the distance between two
+        consecutive rows (row-major) or columns (column-major) in the array.
+
+        Keeping the leading dimension apart from the logical sizes allows sub-matrices
+        and transposes to be views over the very same array, without any copy.
+     */
+
+    enum Layout {
+        ROW_MAJOR, COLUMN_MAJOR;
+
+        Layout flip() {
+            return this == ROW_MAJOR ? COLUMN_MAJOR : ROW_MAJOR;
+        }
+    }
+
+    DenseMatrix {
+        assert colSize >= 0 && rowSize >= 0;
+        assert leadingDimension >= (layout == Layout.ROW_MAJOR ? rowSize : colSize);
+        assert colSize == 0 || rowSize == 0
+                || offset + (layout == Layout.ROW_MAJOR
+                        ? (colSize - 1) * leadingDimension + rowSize
+                        : (rowSize - 1) * leadingDimension + colSize) <= data.length
+                : "The data array is too short for the requested shape";
+    }
+
+    static DenseMatrix zeros(int colSize, int rowSize) {
+        return zeros(colSize, rowSize, Layout.ROW_MAJOR);
+    }
+
+    static DenseMatrix zeros(int colSize, int rowSize, Layout layout) {
+        int ld = layout == Layout.ROW_MAJOR ? rowSize : colSize;
+        return new DenseMatrix(new double[colSize * rowSize], 0, ld, colSize, rowSize, layout);
+    }
+
+    static DenseMatrix identity(int size) {
+        var identity = zeros(size, size);
+        for (int i = 0; i < size; i++) identity.setEntry(i, i, 1D);
+        return identity;
+    }
+
+    static DenseMatrix ofColumn(double[] data) {
+        return new DenseMatrix(data, 0, data.length, data.length, 1, Layout.COLUMN_MAJOR);
+    }
+
+    static DenseMatrix materialized(Matrix M) {
+        /*
+            The dense evaluation of any matrix: M.materialize() (which returns M itself when it is dense),
+            copied once more only when an implementation materializes into something else.
+            The public API only promises a Matrix, the package works on the flat buffer.
+         */
+        var materialized = M.materialize();
+        return materialized instanceof DenseMatrix dense ? dense : copyOf(materialized);
+    }
+
+    static DenseMatrix copyOf(Matrix M) {
+        return copyOf(M, Layout.ROW_MAJOR);
+    }
+
+    static DenseMatrix copyOf(Matrix M, Layout layout) {
+        /*
+            Materializes any matrix into a fresh contiguous buffer.
+            Dense sources are copied entry-wise, which is cheap.
+            Products are planned by the ExpressionOptimizer and computed by the blocked kernel of Gemm.
+            Others are read slice by slice along the requested layout,
+            so that every slice is read only once.
+         */
+        var copy = zeros(M.colSize(), M.rowSize(), layout);
+        if (M instanceof DenseMatrix dense) {
+            copy.assign(dense);
+        } else if (M instanceof ProductOfTwo product) {
+            ExpressionOptimizer.evaluateInto(product, copy);
+        } else if (layout == Layout.ROW_MAJOR) {
+            for (int i = 0; i < M.colSize(); i++) M.getRow(i).copyInto(copy.data, i * copy.leadingDimension);
+        } else {
+            for (int j = 0; j < M.rowSize(); j++) M.getColumn(j).copyInto(copy.data, j * copy.leadingDimension);
+        }
+        return copy;
+    }
+
+    int indexOf(int rowIndex, int colIndex) {
+        return layout == Layout.ROW_MAJOR
+                ? offset + rowIndex * leadingDimension + colIndex
+                : offset + colIndex * leadingDimension + rowIndex;
+    }
+
+    @Override
+    public double getEntry(int rowIndex, int colIndex) {
+        return data[indexOf(rowIndex, colIndex)];
+    }
+
+    @Override
+    public VectorView getRow(int index) {
+        return new ArraySlice(data, indexOf(index, 0), rowSize, layout == Layout.ROW_MAJOR ? 1 : leadingDimension);
+    }
+
+    @Override
+    public VectorView getColumn(int index) {
+        return new ArraySlice(data, indexOf(0, index), colSize, layout == Layout.ROW_MAJOR ? leadingDimension : 1);
+    }
+
+    void setEntry(int rowIndex, int colIndex, double value) {
+        data[indexOf(rowIndex, colIndex)] = value;
+    }
+
+    void addToEntry(int rowIndex, int colIndex, double value) {
+        data[indexOf(rowIndex, colIndex)] += value;
+    }
+
+    void assign(DenseMatrix source) {
+        assert source.colSize == colSize && source.rowSize == rowSize;
+        if (source.layout == layout) {
+            /* Same layout: copy the leading slices as contiguous runs */
+            int slices = layout == Layout.ROW_MAJOR ? colSize : rowSize;
+            int run = layout == Layout.ROW_MAJOR ? rowSize : colSize;
+            for (int s = 0; s < slices; s++)
+                System.arraycopy(
+                        source.data, source.offset + s * source.leadingDimension,
+                        data, offset + s * leadingDimension,
+                        run
+                );
+        } else {
+            for (int i = 0; i < colSize; i++)
+                for (int j = 0; j < rowSize; j++)
+                    setEntry(i, j, source.getEntry(i, j));
+        }
+    }
+
+    DenseMatrix copy() {
+        return copyOf(this, layout);
+    }
+
+    DenseMatrix subMatrix(int rowFrom, int colFrom, int rows, int cols) {
+        /* A view over the same array: only the offset and the logical sizes change */
+        checkFromIndexSize(rowFrom, rows, colSize);
+        checkFromIndexSize(colFrom, cols, rowSize);
+        return new DenseMatrix(data, indexOf(rowFrom, colFrom), leadingDimension, rows, cols, layout);
+    }
+
+    void permuteColumns(int[] order) {
+        /*
+            In place: the column j becomes the former column order[j].
+            Every cycle of the permutation is followed once, with a single column as temporary storage.
+         */
+        assert order.length == rowSize;
+        var visited = new boolean[rowSize];
+        var temporary = new double[colSize];
+        for (int start = 0; start < rowSize; start++) {
+            if (visited[start] || order[start] == start) continue;
+            getColumn(start).copyInto(temporary, 0);
+            int j = start;
+            while (true) {
+                visited[j] = true;
+                int source = order[j];
+                if (source == start) {
+                    for (int i = 0; i < colSize; i++) setEntry(i, j, temporary[i]);
+                    break;
+                }
+                for (int i = 0; i < colSize; i++) setEntry(i, j, getEntry(i, source));
+                j = source;
+            }
+        }
+    }
+
+    void copyInto(double[][] table) {
+        /* Overwrites the table (at least colSize x rowSize) with the entries of this matrix */
+        for (int i = 0; i < colSize; i++)
+            for (int j = 0; j < rowSize; j++)
+                table[i][j] = getEntry(i, j);
+    }
+
+    @Override
+    public DenseMatrix materialize() {
+        return this;
+    }
+
+    @Override
+    public DenseMatrix transpose() {
+        /*
+            Transposing a dense matrix is only a matter of reading the buffer
+            along the other layout: no data moves.
+         */
+        return new DenseMatrix(data, offset, leadingDimension, rowSize, colSize, layout.flip());
+    }
+}
@@ -0,0 +1,69 @@
+package matrix;
+
+record DiagonalMatrix(double[] diagonal) implements StructuredMatrix, SymmetricMatrix {
+    /*
+        A diagonal matrix D, stored as its diagonal only.
+            D * B scales the rows of B,     A * D scales the columns of A,
+        and the product of two diagonal matrices is the diagonal of the products.
+     */
+
+    @Override
+    public int rowSize() {
+        return diagonal.length;
+    }
+
+    @Override
+    public int colSize() {
+        return diagonal.length;
+    }
+
+    @Override
+    public VectorView getRow(int index) {
+        return new UnitSlice(diagonal.length, index, diagonal[index]);
+    }
+
+    @Override
+    public VectorView getColumn(int index) {
+        return new UnitSlice(diagonal.length, index, diagonal[index]);
+    }
+
+    @Override
+    public Matrix transpose() {
+        return this;
+    }
+
+    @Override
+    public VectorView apply(VectorView vec) {
+        var x = vec.toArray();
+        assert x.length == diagonal.length;
+        for (int i = 0; i < x.length; i++) x[i] *= diagonal[i];
+        return ArraySlice.of(x);
+    }
+
+    @Override
+    public Matrix composeLeft(Matrix rightFactor) {
+        assert rightFactor.colSize() == diagonal.length;
+        if (rightFactor instanceof DiagonalMatrix other) {
+            double[] product = diagonal.clone();
+            for (int i = 0; i < product.length; i++) product[i] *= other.diagonal[i];
+            return new DiagonalMatrix(product);
+        }
+        return StructuredMatrix.super.composeLeft(rightFactor);
+    }
+
+    @Override
+    public void composeLeftInto(DenseMatrix rightFactor, DenseMatrix target) {
+        assert rightFactor.colSize() == diagonal.length;
+        target.assign(rightFactor);
+        for (int i = 0; i < diagonal.length; i++)
+            for (int j = 0; j < target.rowSize(); j++) target.setEntry(i, j, diagonal[i] * target.getEntry(i, j));
+    }
+
+    @Override
+    public void composeRightInto(DenseMatrix leftFactor, DenseMatrix target) {
+        assert leftFactor.rowSize() == diagonal.length;
+        target.assign(leftFactor);
+        for (int i = 0; i < target.colSize(); i++)
+            for (int j = 0; j < diagonal.length; j++) target.setEntry(i, j, target.getEntry(i, j) * diagonal[j]);
+    }
+}
@@ -0,0 +1,11 @@
+package matrix;
+
+interface DotProductView extends VectorView {
+    /*
+        A vector view computing its own dot products against arrays, from where its entries are stored
+        (only the non-zero entries of sparse views, the memory of off-heap views, ...).
+        Kernels.dot hands the product over to the view, instead of iterating it.
+     */
+
+    double dot(double[] x);
+}
@@ -0,0 +1,20 @@
+package matrix;
+
+record EigenPairs(Spectrum spectrum, DenseMatrix vectors, boolean schurVectors) {
+    /*
+        Eigenvalues, together with the orthogonal transform that revealed them.
+
+        For symmetric matrices, the columns of the vectors are eigenvectors:
+        the column i goes with the eigenvalue i of the spectrum, sorted by decreasing modulus.
+
+        For general matrices, the columns are Schur vectors: Z^T A Z is quasi upper-triangular (the real Schur form),
+        and the spectrum lists the eigenvalues in the order of its diagonal, which is not sorted.
+        The first k Schur vectors span an invariant subspace of A, for any k that does not cut a conjugate pair.
+
+        The vectors are null when they were not asked for.
+     */
+
+    boolean hasVectors() {
+        return vectors != null;
+    }
+}
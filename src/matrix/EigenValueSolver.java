@@ -1,21 +1,62 @@
 package matrix;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntBinaryOperator;
 
 import static java.lang.Math.*;
-import static matrix.Matrix.ofTable;
 
-interface EigenValueSolver extends QRDecomposer
+interface EigenValueSolver extends QRDecomposer, HessenbergReducer
 {
     /* Use the QR decomposer to infer eigen values */
 
+    enum Precision {
+        /* Arithmetic of the eigenvalue iteration (see spectrum(Matrix, Precision)) */
+        DOUBLE, SINGLE, MIXED
+    }
+
     double sensitivity();
 
     int iterationBound();
 
     double shiftInContext(double[][] data);
 
+    default double shiftInContext(DenseMatrix data, double[][] table) {
+        /*
+            The iteration works on a flat buffer, while shiftInContext(double[][]) reads a table:
+            this default refills the given table, in place, with the whole matrix, and reads the shift from it.
+            The table is allocated once per block (see flushEigenvalues) and reused at every step,
+            so that nothing is allocated per iteration, but the copy still costs O(n^2) writes per step,
+            whatever the shift actually reads. Most shifts only read a few entries
+            (Wilkinson's shift reads the trailing 2 x 2 block): implementations may override this method,
+            read those entries from the buffer, and leave the table alone.
+         */
+        data.copyInto(table);
+        return shiftInContext(table);
+    }
+
+    default int parallelism() {
+        /*
+            Number of workers iterating on independent blocks at the same time.
+            Above one, blocks are scheduled on a fork-join pool, and shiftInContext
+            may be called concurrently (on different blocks).
+            Values above the number of available processors are cut down to it (see BlockPools).
+
+            The bound on iterations is a single budget, drawn by all the blocks at once.
+            When it is exhausted, which blocks are left unconverged depends on the scheduling of the workers:
+            with a parallelism above one, a tight bound may give different results from one run to another.
+            Results are deterministic with a parallelism of one, or whenever the bound is not reached.
+         */
+        return 1;
+    }
+
     default int flushEigenvalues(Matrix M, double[] eigenValues) {
         /*
             This algorithm implements the iterative QR-eigenvalue iteration
@@ -41,90 +82,396 @@ interface EigenValueSolver extends QRDecomposer
 
                     The shift implementation doesn't require any kind of specific matrix operation
                     to be defined. Because of the previous remark on the data model, we already
-                    backed our computations with a double[][]. Accessing the diagonal elements is
-                    straightforward.
+                    backed our computations with a dense matrix (a single flat double[]).
+                    Accessing the diagonal elements is straightforward.
+
+                The matrix is first reduced to upper Hessenberg form, once and for all.
+                The QR iteration preserves that shape, so that C is upper triangular as soon
+                as its subdiagonal vanishes, and every QR step can be performed with n-1 Givens rotations.
+
+                Symmetric matrices do not go through that iteration: see symmetricEigenvalues.
+                Band matrices (see BandMatrix) tell their shape: Hessenberg ones skip the reduction,
+                and symmetric tridiagonal ones go straight to the QL iteration, without any O(n^3) step.
          */
         assert M.rowSize() == M.colSize();
         assert eigenValues.length == M.rowSize();
 
-        double[][] data = matrixToData(M);
-        var iterationBound = iterationBound();
-
-        while(iterationBound-- > 0 && !isUpperTriangular(data)) {
-            /*
-                Given H0, H1, H2, ..., Hk we know that
-                    Q = (Hk * ... * H2 * H1 * H0)^T
-                and Q is orthogonal. In particular, we know that
-                    R = Q^T * A
-                      = Hk * ... * H2 * H1 * H0 * A
-                and
-                    RQ = Q' * A * Q'^T
-                    Q' = Q^T = (Hk * ... * (H2 * (H1 * H0))...)
-                In order to mitigate lazy computations effects, we reduce this computation
-                factor-by-factor, and store the information in a data source matrix.
-
-                The computation of Q' A Q'^T can be improved for Hessenberg matrices
-             */
-            double s = shiftInContext(data);
-            shifts(data, -s);
-            var cursor = ofTable(data);
-            var householderList = householderSuccessiveReflections(cursor);
-            { // compute RQ = Q' A Q'^T
-                Matrix qBis;
-                { // Compute (Hk * ... * (H2 * (H1 * H0))...)
-                    var it = householderList.iterator();
-                    double[][] qBisData = matrixToData(it.next());
-                    while (it.hasNext()) qBisData = matrixToData(it.next().composeLeft(ofTable(qBisData)));
-                    qBis = ofTable(qBisData);
+        if(M instanceof SymmetricMatrix || isSymmetricTridiagonal(M)) {
+            var tridiagonal = M instanceof BandMatrix band ? band.toTridiagonal() : Tridiagonal.of(M);
+            int iterationsLeft = tridiagonal.diagonalize(iterationBound(), sensitivity());
+            sortInto(tridiagonal.diagonal(), eigenValues);
+            return iterationsLeft;
+        }
+
+        DenseMatrix data = DenseMatrix.copyOf(M);
+        if(!isHessenberg(M)) reduceToHessenberg(data);
+        var iterationBound = new AtomicInteger(iterationBound());
+
+        /*
+            Deflation:
+                as soon as a subdiagonal entry C_{l(l-1)} becomes negligible, it is set to zero
+                and the active window splits into two independent diagonal blocks. The eigenvalues
+                of C are the ones of the blocks, which are iterated on their own, with their own shift.
+                A block of size one is a converged eigenvalue, locked on the diagonal.
+
+            Later steps only cost O(b^2) on blocks of size b, and blocks have nothing in common.
+         */
+        forEachBlock(data.colSize(), parallelism(), (lo, hi) -> {
+            if(lo == hi) return lo;
+            var block = data.subMatrix(lo, lo, hi - lo + 1, hi - lo + 1);
+            double[] cosines = new double[block.colSize()];
+            double[] sines = new double[block.colSize()];
+            double[][] table = new double[block.colSize()][block.rowSize()];
+            while(true) {
+                int l = FrancisQR.deflationPoint(data, lo, hi, sensitivity());
+                if(l > lo || iterationBound.getAndDecrement() <= 0) return l;
+
+                /*
+                    Given G0, G1, ..., Gk the Givens rotations cancelling the subdiagonal of the block, we know that
+                        R = Gk * ... * G1 * G0 * C
+                        Q = (Gk * ... * G1 * G0)^T
+                    and
+                        RQ = R * G0^T * G1^T * ... * Gk^T
+                    Every rotation only mixes two consecutive rows (or columns),
+                    so that one step costs O(b^2) and RQ is Hessenberg again.
+                 */
+                double s = shiftInContext(block, table);
+                shifts(block, -s);
+                givensStep(block, cosines, sines);
+                shifts(block, s);
+            }
+        });
+
+        sortInto(diagonal(data), eigenValues);
+        return max(iterationBound.get(), -1);
+    }
+
+    default Spectrum symmetricEigenvalues(Matrix M) {
+        /*
+            Eigenvalues of a symmetric matrix, which are all real.
+
+            The matrix is reduced to a tridiagonal form T (only its diagonal and off-diagonal are stored),
+            on which the implicit QL iteration with Wilkinson's shift runs.
+            A sweep costs O(n) instead of O(n^2), and the reduction itself is done once.
+
+            The shift does not come from shiftInContext, and the bound on iterations counts QL sweeps.
+         */
+        return symmetricEigenpairs(M, false).spectrum();
+    }
+
+    default Spectrum spectrum(Matrix M) {
+        /*
+            Eigenvalues of a real square matrix, with the Francis double-shift iteration.
+
+            Unlike flushEigenvalues, the shifts do not come from shiftInContext:
+            they are the two eigenvalues of the trailing 2x2 block of the active window,
+            possibly complex conjugate. Real matrices with complex eigenvalues thus converge as well.
+
+                H = Hessenberg form of M
+                windows = { [0, n-1] }
+                for every window [lo, hi]:
+                    if hi == lo:        H_{hi hi} is an eigenvalue
+                    else if hi == lo+1: the 2x2 block at lo yields two eigenvalues
+                    else if some subdiagonal entry H_{l(l-1)} is negligible:
+                                        split into the windows [lo, l-1] and [l, hi]
+                    else:               perform a double-shift step on the window, and look again
+
+            The bound on iterations counts double-shift steps. If it is exhausted,
+            the remaining eigenvalues are read from the diagonal and the number of iterations left is negative.
+         */
+        return eigenpairs(M, false).spectrum();
+    }
+
+    default Spectrum spectrum(Matrix M, Precision precision) {
+        /*
+            Same as spectrum, in the given arithmetic (see SinglePrecision):
+                - DOUBLE: spectrum(M) itself,
+                - SINGLE: the reduction and the iteration run on floats, for about seven significant digits,
+                - MIXED: the reduction runs on doubles, the iteration on floats,
+                  and every eigenvalue is then refined in double precision against the Hessenberg form,
+                  to about the accuracy of spectrum(M); it is slower than DOUBLE (see SinglePrecision for timings),
+                  and needs more memory: the double Hessenberg form and its float copy, plus the n x n buffer
+                  of the refinement, and a second one when some eigenvalues are complex,
+                  that is up to 3.5 n^2 doubles where DOUBLE holds n^2.
+            Symmetric matrices always go through the (double) tridiagonal iteration, whose sweeps are only O(n).
+            The iteration runs on the calling thread, whatever the parallelism.
+         */
+        assert M.rowSize() == M.colSize();
+        if(precision == Precision.DOUBLE || M instanceof SymmetricMatrix || isSymmetricTridiagonal(M))
+            return spectrum(M);
+        int n = M.rowSize();
+        float[] v = new float[n], w = new float[n];
+        DenseMatrix hessenberg = null;
+        FloatMatrix work;
+        if(precision == Precision.SINGLE) {
+            work = FloatMatrix.copyOf(M);
+            if(!isHessenberg(M)) SinglePrecision.reduceToHessenberg(work, v, w);
+        } else {
+            hessenberg = DenseMatrix.copyOf(M);
+            if(!isHessenberg(M)) HessenbergReducer.reduceToHessenberg(hessenberg, new double[n]);
+            work = FloatMatrix.copyOf(hessenberg);
+        }
+        double[] real = new double[n], imaginary = new double[n];
+        int iterationsLeft = SinglePrecision.iterate(
+                work, real, imaginary, new int[2 * n + 2], iterationBound(), sensitivity()
+        );
+        if(hessenberg != null) SinglePrecision.refine(hessenberg, real, imaginary);
+        return new Spectrum(real, imaginary, iterationsLeft).sorted();
+    }
+
+    default EigenPairs eigenpairs(Matrix M, boolean withVectors) {
+        /*
+            Same as spectrum, optionally together with the orthogonal transform Z
+            (see EigenPairs for what its columns are).
+
+            Z lives in a single n x n buffer, allocated once, on which every transform is accumulated in place:
+                - the Hessenberg (or tridiagonal) reflectors, applied on the right of the identity,
+                - then every reflector (or rotation) of the iteration.
+            Nothing else is ever allocated per iteration.
+
+            Accumulating Z requires every step to update the whole rows and columns of H,
+            and not only its active window: the blocks are not independent anymore,
+            so that the iteration runs sequentially, whatever the parallelism.
+            A step then costs O(n b) instead of O(b^2) on a block of size b.
+         */
+        assert M.rowSize() == M.colSize();
+        if(M instanceof SymmetricMatrix || isSymmetricTridiagonal(M)) return symmetricEigenpairs(M, withVectors);
+        int n = M.rowSize();
+
+        DenseMatrix data = DenseMatrix.copyOf(M);
+        var reflectors = isHessenberg(M) ? List.<Householder>of() : reduceToHessenberg(data);
+        DenseMatrix vectors = null;
+        if(withVectors) {
+            vectors = DenseMatrix.identity(n);
+            for(var reflector: reflectors) reflector.applyRight(vectors);
+        }
+        double[] real = new double[n], imaginary = new double[n];
+        int iterationsLeft = francis(data, real, imaginary, vectors, withVectors ? 1 : parallelism());
+
+        var spectrum = new Spectrum(real, imaginary, iterationsLeft);
+        return withVectors
+                ? new EigenPairs(spectrum, vectors, true)
+                : new EigenPairs(spectrum.sorted(), null, false);
+    }
+
+    default int spectrumInPlace(DenseMatrix work, boolean symmetric, EigenWorkspace workspace) {
+        /*
+            Eigenvalues of the square matrix held by work, which is overwritten,
+            written into the n first entries of workspace.real() and workspace.imaginary(),
+            sorted by decreasing modulus as by spectrum.
+            Symmetric matrices go through the tridiagonal QL iteration, others through the Francis one.
+            Returns the number of iterations left, negative if the bound was exhausted.
+
+            Meant for callers solving many matrices (see BatchEigenSolver): every buffer comes from the workspace,
+            which must have been sized to n (see EigenWorkspace.square), and nothing at all is allocated,
+            so that a steady flow of solves leaves the garbage collector alone.
+            The iteration runs on the calling thread, whatever the parallelism.
+         */
+        assert work.rowSize() == work.colSize();
+        int n = work.rowSize();
+        double[] real = workspace.real(), imaginary = workspace.imaginary();
+        int iterationsLeft;
+        if(symmetric) {
+            Tridiagonal.reduce(work, real, imaginary, workspace.reflector(), workspace.product(), null);
+            iterationsLeft = Tridiagonal.diagonalize(real, imaginary, n, iterationBound(), sensitivity(), null);
+            Arrays.fill(imaginary, 0, n, 0D);
+        } else {
+            HessenbergReducer.reduceToHessenberg(work, workspace.reflector());
+            var iterationBound = workspace.iterationBound();
+            iterationBound.set(iterationBound());
+            /* The windows of forEachBlock, as a stack of pairs (lo, hi) of preallocated ints */
+            int[] windows = workspace.windows();
+            int top = 0;
+            if(n > 0) {
+                windows[top++] = 0;
+                windows[top++] = n - 1;
+            }
+            while(top > 0) {
+                int hi = windows[--top], lo = windows[--top];
+                int l = iterateUntilSplit(work, lo, hi, real, imaginary, null, iterationBound);
+                if(l > lo) {
+                    windows[top++] = lo;
+                    windows[top++] = l - 1;
+                    windows[top++] = l;
+                    windows[top++] = hi;
                 }
-                data = matrixToData(qBis.composeLeft(cursor));
-                data = matrixToData(ofTable(data).composeLeft(qBis.transpose()));
             }
-            shifts(data, s);
+            iterationsLeft = max(iterationBound.get(), -1);
         }
+        Spectrum.sortInPlace(real, imaginary, n);
+        return iterationsLeft;
+    }
 
-        System.arraycopy(
-                Arrays.stream(
-                        diagonal(data)).boxed()
-                        .sorted(Comparator.<Double>comparingDouble(Math::abs).reversed())
-                        .mapToDouble(Double::doubleValue)
-                        .toArray(),
-                0, eigenValues, 0, eigenValues.length
-        );
-        return iterationBound;
+    private int francis(DenseMatrix data, double[] real, double[] imaginary, DenseMatrix accumulator, int parallelism) {
+        /* The Francis iteration on a Hessenberg matrix (see spectrum), accumulating transforms if asked to */
+        var iterationBound = new AtomicInteger(iterationBound());
+        forEachBlock(data.rowSize(), parallelism,
+                (lo, hi) -> iterateUntilSplit(data, lo, hi, real, imaginary, accumulator, iterationBound));
+        return max(iterationBound.get(), -1);
     }
 
-    private static double[][] matrixToData(Matrix M) {
+    private int iterateUntilSplit(DenseMatrix data, int lo, int hi, double[] real, double[] imaginary,
+                                  DenseMatrix accumulator, AtomicInteger iterationBound) {
+        /* Double-shift steps on the window [lo, hi], until it splits or converges (see forEachBlock) */
+        for(int sinceDeflation = 0; ; ) {
+            if(lo == hi) {
+                real[hi] = data.getEntry(hi, hi);
+                imaginary[hi] = 0D;
+                return lo;
+            } else if(lo == hi - 1) {
+                if(accumulator != null) FrancisQR.standardize(data, lo, accumulator);
+                FrancisQR.blockEigenvalues(data, lo, real, imaginary);
+                return lo;
+            }
+            int l = FrancisQR.deflationPoint(data, lo, hi, sensitivity());
+            if(l > lo) {
+                return l;
+            } else if(iterationBound.getAndDecrement() > 0) {
+                FrancisQR.sweep(data, lo, hi, ++sinceDeflation, accumulator);
+            } else {
+                for(int i = lo; i <= hi; i++) {
+                    real[i] = data.getEntry(i, i);
+                    imaginary[i] = 0D;
+                }
+                return lo;
+            }
+        }
+    }
+
+    private EigenPairs symmetricEigenpairs(Matrix M, boolean withVectors) {
+        /* Eigenvectors follow their eigenvalues when sorting: the columns of Z are permuted in place */
         assert M.rowSize() == M.colSize();
-        int size = M.rowSize();
-        double[][] data = new double[size][];
+        int n = M.rowSize();
+        DenseMatrix vectors = withVectors ? DenseMatrix.identity(n) : null;
+        var tridiagonal = M instanceof BandMatrix band && band.isSymmetricTridiagonal()
+                ? band.toTridiagonal()
+                : Tridiagonal.reduce(DenseMatrix.copyOf(M), vectors);
+        int iterationsLeft = tridiagonal.diagonalize(iterationBound(), sensitivity(), vectors);
+        var spectrum = new Spectrum(tridiagonal.diagonal(), new double[n], iterationsLeft);
+        int[] order = spectrum.order();
+        if(withVectors) vectors.permuteColumns(order);
+        return new EigenPairs(spectrum.permuted(order), vectors, false);
+    }
 
-        for(int i = 0; i < size; i++)
-            data[i] = M.getRow(i).toArray();
+    private static boolean isHessenberg(Matrix M) {
+        return M instanceof BandMatrix band && band.isHessenberg();
+    }
 
-        return data;
+    private static boolean isSymmetricTridiagonal(Matrix M) {
+        return M instanceof BandMatrix band && band.isSymmetricTridiagonal();
     }
 
-    private boolean isUpperTriangular(double[][] data) {
-        boolean isDiagonal = true;
-        for(int i = 0; i < data.length; i++) {
-            for(int j = 0; j < i; j++) {
-                isDiagonal &= abs(data[i][j]) < sensitivity();
+    private static void forEachBlock(int n, int parallelism, IntBinaryOperator iterateUntilSplit) {
+        /*
+            Schedules the diagonal blocks of a n x n Hessenberg matrix.
+
+            The operator iterates on the block [lo, hi] (bounds included) until it splits,
+            and returns the first index l > lo of the lower part. Any other value means that
+            the block is done with (converged, or out of iterations).
+
+            Blocks do not share any entry of the matrix: with a parallelism above one,
+            every block becomes a fork-join task, and the two halves of a split are forked.
+            Work-stealing keeps the workers busy even when the blocks are very uneven.
+            Pools are shared by every call (see BlockPools): starting threads would cost more
+            than the whole iteration on small and medium matrices.
+         */
+        if(n == 0) return;
+        if(parallelism <= 1) {
+            record Window(int lo, int hi) {}
+            var windows = new ArrayDeque<Window>();
+            windows.push(new Window(0, n - 1));
+            while(!windows.isEmpty()) {
+                var window = windows.pop();
+                int l = iterateUntilSplit.applyAsInt(window.lo(), window.hi());
+                if(l > window.lo()) {
+                    windows.push(new Window(window.lo(), l - 1));
+                    windows.push(new Window(l, window.hi()));
+                }
+            }
+        } else {
+            class BlockTask extends RecursiveAction {
+                private static final long serialVersionUID = 1L;
+                final int lo, hi;
+
+                BlockTask(int lo, int hi) {
+                    this.lo = lo;
+                    this.hi = hi;
+                }
+
+                @Override
+                protected void compute() {
+                    int l = iterateUntilSplit.applyAsInt(lo, hi);
+                    if(l > lo) invokeAll(new BlockTask(lo, l - 1), new BlockTask(l, hi));
+                }
+            }
+            BlockPools.of(parallelism).invoke(new BlockTask(0, n - 1));
+        }
+    }
+
+    final class BlockPools {
+        /*
+            The fork-join pools of forEachBlock, created once and shared by every solve:
+            the common pool itself when the parallelism is its own, and one pool per other parallelism.
+            Parallelisms are cut down to the number of available processors, above which workers would only
+            compete for the same cores: there are never more pools than processors, whatever the callers ask for.
+            Pools are never shut down, but their workers are daemon threads, which retire after a while
+            without work, as in any fork-join pool: idle pools hold no thread.
+         */
+        private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+        private BlockPools() {}
+
+        static ForkJoinPool of(int parallelism) {
+            parallelism = max(min(parallelism, Runtime.getRuntime().availableProcessors()), 1);
+            if(parallelism == ForkJoinPool.getCommonPoolParallelism()) return ForkJoinPool.commonPool();
+            return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+        }
+    }
+
+    private static void givensStep(DenseMatrix data, double[] cosines, double[] sines) {
+        int n = data.colSize();
+        for(int k = 0; k < n - 1; k++) { // R = Gk * ... * G0 * C
+            double a = data.getEntry(k, k), b = data.getEntry(k + 1, k);
+            double r = hypot(a, b);
+            double c = r == 0D ? 1D : a / r, s = r == 0D ? 0D : b / r;
+            cosines[k] = c; sines[k] = s;
+            for(int j = k; j < n; j++) {
+                double x = data.getEntry(k, j), y = data.getEntry(k + 1, j);
+                data.setEntry(k, j, c * x + s * y);
+                data.setEntry(k + 1, j, c * y - s * x);
+            }
+        }
+        for(int k = 0; k < n - 1; k++) { // RQ = R * G0^T * ... * Gk^T
+            double c = cosines[k], s = sines[k];
+            for(int i = 0; i <= min(k + 1, n - 1); i++) {
+                double x = data.getEntry(i, k), y = data.getEntry(i, k + 1);
+                data.setEntry(i, k, c * x + s * y);
+                data.setEntry(i, k + 1, c * y - s * x);
             }
         }
-        return isDiagonal;
     }
 
-    private static double[] diagonal(double[][] data) {
-        double[] diagonal = new double[data.length];
+    private static void sortInto(double[] values, double[] eigenValues) {
+        System.arraycopy(
+                Arrays.stream(
+                        values).boxed()
+                        .sorted(Comparator.<Double>comparingDouble(Math::abs).reversed())
+                        .mapToDouble(Double::doubleValue)
+                        .toArray(),
+                0, eigenValues, 0, eigenValues.length
+        );
+    }
+
+    private static double[] diagonal(DenseMatrix data) {
+        double[] diagonal = new double[data.colSize()];
         for(int i = 0; i < diagonal.length; i++)
-            diagonal[i] = data[i][i];
+            diagonal[i] = data.getEntry(i, i);
         return diagonal;
     }
 
-    private static void shifts(double[][] data, double shift) {
-        for(int i = 0; i < data.length; i++)
-            data[i][i] += shift;
+    private static void shifts(DenseMatrix data, double shift) {
+        for(int i = 0; i < data.colSize(); i++)
+            data.addToEntry(i, i, shift);
     }
 
 }
@@ -0,0 +1,67 @@
+package matrix;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class EigenWorkspace {
+    /*
+        Buffers of an eigenvalue computation (see EigenValueSolver.spectrumInPlace),
+        meant to be reused from one matrix to the next by a single thread.
+
+        Buffers are sized to n once, and only grow when a larger matrix comes:
+        solving any number of matrices of size at most n then allocates nothing.
+     */
+
+    private int n = -1;
+    private DenseMatrix square;
+    private double[] matrix = new double[0];
+    private double[] real = new double[0], imaginary = new double[0];
+    private double[] reflector = new double[0], product = new double[0];
+    private int[] windows = new int[0];
+    private final AtomicInteger iterationBound = new AtomicInteger();
+
+    EigenWorkspace() {}
+
+    EigenWorkspace(int capacity) {
+        square(capacity);
+    }
+
+    DenseMatrix square(int n) {
+        /* A n x n row-major view over the matrix buffer, with arbitrary content */
+        if (n == this.n) return square;
+        if (matrix.length < n * n) matrix = new double[n * n];
+        if (real.length < n) {
+            real = new double[n];
+            imaginary = new double[n];
+            reflector = new double[n];
+            product = new double[n];
+            /* At most n windows are ever stacked, since they do not overlap */
+            windows = new int[2 * n + 2];
+        }
+        this.n = n;
+        return square = new DenseMatrix(matrix, 0, n, n, n, DenseMatrix.Layout.ROW_MAJOR);
+    }
+
+    double[] real() {
+        return real;
+    }
+
+    double[] imaginary() {
+        return imaginary;
+    }
+
+    double[] reflector() {
+        return reflector;
+    }
+
+    double[] product() {
+        return product;
+    }
+
+    int[] windows() {
+        return windows;
+    }
+
+    AtomicInteger iterationBound() {
+        return iterationBound;
+    }
+}
@@ -0,0 +1,106 @@
+package matrix;
+
+record Embedding(Matrix block, int dim) implements StructuredMatrix {
+    /*
+        The identity of size dim, whose lower-right corner is overwritten by the block:
+            E_{ij} = block_{(i - r)(j - c)}     when i >= r and j >= c,
+            E_{ij} = delta_{ij}                 otherwise,
+        with r = dim - (rows of the block) and c = dim - (columns of the block).
+        For a square block, that is the block-diagonal matrix diag(Id, block).
+
+        Nothing is copied: rows and columns are unit slices glued to the ones of the block.
+        With a square block, products only touch the last rows (on the left) or columns (on the right):
+            diag(Id, M) * B = [ B_top ; M * B_bottom ]
+        and two such embeddings of the same shape multiply block by block.
+     */
+
+    Embedding {
+        assert dim >= block.rowSize() && dim >= block.colSize();
+    }
+
+    private int rowShift() {
+        return dim - block.colSize();
+    }
+
+    private int colShift() {
+        return dim - block.rowSize();
+    }
+
+    @Override
+    public int rowSize() {
+        return dim;
+    }
+
+    @Override
+    public int colSize() {
+        return dim;
+    }
+
+    @Override
+    public VectorView getRow(int index) {
+        if (index < rowShift()) return new UnitSlice(dim, index, 1D);
+        return new UnitSlice(colShift(), index, 1D).then(block.getRow(index - rowShift()));
+    }
+
+    @Override
+    public VectorView getColumn(int index) {
+        if (index < colShift()) return new UnitSlice(dim, index, 1D);
+        return new UnitSlice(rowShift(), index, 1D).then(block.getColumn(index - colShift()));
+    }
+
+    @Override
+    public Matrix transpose() {
+        return new Embedding(block.transpose(), dim);
+    }
+
+    @Override
+    public VectorView apply(VectorView vec) {
+        /* The identity part copies x, the block is applied to the tail of x only */
+        var x = vec.toArray();
+        assert x.length == dim;
+        int r = rowShift(), c = colShift();
+        var tail = block.apply(ArraySlice.of(x).subView(c, block.rowSize())).toArray();
+        double[] y = new double[dim];
+        for (int i = 0; i < dim; i++) {
+            if (i < r || i < c) y[i] = x[i];
+            if (i >= r) y[i] += tail[i - r];
+        }
+        return ArraySlice.of(y);
+    }
+
+    @Override
+    public Matrix composeLeft(Matrix rightFactor) {
+        assert rightFactor.colSize() == dim;
+        int shift = rowShift();
+        if (shift == colShift() && rightFactor instanceof Embedding other && other.dim == dim
+                && other.rowShift() == shift && other.colShift() == shift)
+            return new Embedding(block.composeLeft(other.block), dim);
+        return StructuredMatrix.super.composeLeft(rightFactor);
+    }
+
+    @Override
+    public void composeLeftInto(DenseMatrix rightFactor, DenseMatrix target) {
+        assert rightFactor.colSize() == dim;
+        int shift = rowShift();
+        if (shift != colShift()) {
+            Gemm.multiply(DenseMatrix.copyOf(this), rightFactor, target);
+            return;
+        }
+        target.assign(rightFactor);
+        var bottom = target.subMatrix(shift, 0, dim - shift, target.rowSize());
+        bottom.assign(DenseMatrix.materialized(block.composeLeft(bottom)));
+    }
+
+    @Override
+    public void composeRightInto(DenseMatrix leftFactor, DenseMatrix target) {
+        assert leftFactor.rowSize() == dim;
+        int shift = colShift();
+        if (shift != rowShift()) {
+            Gemm.multiply(leftFactor, DenseMatrix.copyOf(this), target);
+            return;
+        }
+        target.assign(leftFactor);
+        var right = target.subMatrix(0, shift, target.colSize(), dim - shift);
+        right.assign(DenseMatrix.materialized(right.composeLeft(block)));
+    }
+}
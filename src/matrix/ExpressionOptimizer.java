@@ -0,0 +1,229 @@
+package matrix;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ExpressionOptimizer {
+    /*
+        Rewrites and evaluates expressions built from composeLeft and transpose.
+
+        An expression is first flattened into the chain of its leaves F0 * F1 * ... * Fk,
+        every leaf carrying a flag telling whether it is read transposed:
+            - transposes are pushed down to the leaves, with (A * B)^T = B^T * A^T,
+            - double transposes cancel out, with (A^T)^T = A,
+            - a transposed dense leaf is nothing but its buffer read along the other layout.
+        The product is associative, so that the chain may be evaluated in any order.
+        For leaves of sizes p0 x p1, p1 x p2, ..., pk x p(k+1), the classic dynamic programming
+            cost(i, j) = min over i <= s < j of cost(i, s) + cost(s+1, j) + p_i p_(s+1) p_(j+1)
+        finds the cheapest parenthesization in O(k^3), which is negligible against the products themselves.
+
+        Leaves that may be read in place (see InPlaceOperand: off-heap segments, bands) are kept in their own storage,
+        for the packing of the kernel, or for a kernel that only visits the band. Products with a structured leaf
+        (see StructuredMatrix) are computed by the shortcut of the structure, in O(n^2), instead of a dense product.
+        All the others are materialized.
+        Products with such a leaf run on the calling thread, even when parallel kernels are given.
+
+        Shared subexpressions are computed once per evaluation:
+            - every leaf is materialized once, however many times (and however transposed) it appears:
+              in Q * A * Q^T, Q is read once and Q^T is a view over the same buffer;
+            - every partial product is kept, and reused when the same sub-chain, or its transpose, shows up again:
+              in (Q A) (Q A)^T = Q A A^T Q^T, the product Q A is computed once.
+              The cost model knows about it, and favours splits whose both halves are the same.
+     */
+
+    record Factor(Matrix leaf, boolean transposed) {
+        /*
+            A leaf of the chain. Dense leaves are normalized to the row-major layout,
+            so that a matrix and its transposed view (over the same buffer) are recognized as the same leaf.
+         */
+
+        static Factor of(Matrix leaf, boolean transposed) {
+            if (leaf instanceof DenseMatrix dense && dense.layout() == DenseMatrix.Layout.COLUMN_MAJOR)
+                return new Factor(dense.transpose(), !transposed);
+            return new Factor(leaf, transposed);
+        }
+
+        int rows() {
+            return transposed ? leaf.rowSize() : leaf.colSize();
+        }
+
+        int cols() {
+            return transposed ? leaf.colSize() : leaf.rowSize();
+        }
+
+        Factor flip() {
+            return new Factor(leaf, !transposed);
+        }
+
+        Matrix expression() {
+            return transposed ? leaf.transpose() : leaf;
+        }
+    }
+
+    static List<Factor> flatten(Matrix M) {
+        var chain = new ArrayList<Factor>();
+        flatten(M, false, chain);
+        return chain;
+    }
+
+    private static void flatten(Matrix M, boolean transposed, List<Factor> chain) {
+        if (M instanceof Transposed t) {
+            flatten(t.original(), !transposed, chain);
+        } else if (M instanceof ProductOfTwo product) {
+            flatten(transposed ? product.right() : product.left(), transposed, chain);
+            flatten(transposed ? product.left() : product.right(), transposed, chain);
+        } else {
+            chain.add(Factor.of(M, transposed));
+        }
+    }
+
+    static Matrix optimize(Matrix M) {
+        /*
+            The same expression, lazy again, but re-associated in the cheapest order
+            and with transposes pushed down to the leaves.
+         */
+        return new Chain(flatten(M), null).expression();
+    }
+
+    static DenseMatrix evaluate(Matrix M) {
+        return evaluate(M, null);
+    }
+
+    static DenseMatrix evaluate(Matrix M, ParallelKernels kernels) {
+        /* With kernels (possibly null, for the calling thread only) running every product of the plan */
+        var target = DenseMatrix.zeros(M.colSize(), M.rowSize());
+        new Chain(flatten(M), kernels).evaluateInto(target);
+        return target;
+    }
+
+    static void evaluateInto(Matrix M, DenseMatrix target) {
+        /* target := M, where target is a zero (or any) buffer of the right shape */
+        assert target.colSize() == M.colSize() && target.rowSize() == M.rowSize();
+        new Chain(flatten(M), null).evaluateInto(target);
+    }
+
+    private static final class Chain {
+        final List<Factor> factors;
+        final ParallelKernels kernels;
+        final int[][] split;
+        final Map<Matrix, CoordinatesBased> leaves = new HashMap<>();
+        final Map<List<Factor>, DenseMatrix> partials = new HashMap<>();
+
+        Chain(List<Factor> factors, ParallelKernels kernels) {
+            this.factors = factors;
+            this.kernels = kernels;
+            int k = factors.size();
+            long[] dims = new long[k + 1];
+            for (int i = 0; i < k; i++) {
+                dims[i] = factors.get(i).rows();
+                assert i == 0 || factors.get(i - 1).cols() == dims[i] : "Incompatible factors";
+            }
+            dims[k] = factors.get(k - 1).cols();
+
+            long[][] cost = new long[k][k];
+            split = new int[k][k];
+            for (int length = 2; length <= k; length++)
+                for (int i = 0; i + length <= k; i++) {
+                    int j = i + length - 1;
+                    cost[i][j] = Long.MAX_VALUE;
+                    for (int s = i; s < j; s++) {
+                        long right = repeats(i, s, j) ? 0L : cost[s + 1][j];
+                        long c = cost[i][s] + right + dims[i] * dims[s + 1] * dims[j + 1];
+                        if (c < cost[i][j]) {
+                            cost[i][j] = c;
+                            split[i][j] = s;
+                        }
+                    }
+                }
+        }
+
+        private boolean repeats(int i, int s, int j) {
+            /* Whether the sub-chain [s+1, j] is the sub-chain [i, s] again, or its transpose: it then comes for free */
+            if (j - s != s - i + 1) return false;
+            var left = factors.subList(i, s + 1);
+            var right = factors.subList(s + 1, j + 1);
+            return left.equals(right) || transposeOf(left).equals(right);
+        }
+
+        Matrix expression() {
+            return expression(0, factors.size() - 1);
+        }
+
+        private Matrix expression(int i, int j) {
+            if (i == j) return factors.get(i).expression();
+            return expression(i, split[i][j]).composeLeft(expression(split[i][j] + 1, j));
+        }
+
+        void evaluateInto(DenseMatrix target) {
+            int last = factors.size() - 1;
+            if (last == 0) {
+                var only = value(0, 0);
+                if (only instanceof DenseMatrix dense) target.assign(dense);
+                else for (int i = 0; i < target.colSize(); i++)
+                    for (int j = 0; j < target.rowSize(); j++)
+                        target.setEntry(i, j, only.getEntry(i, j));
+            } else {
+                zero(target);
+                multiplyInto(0, last, target);
+            }
+        }
+
+        private void multiplyInto(int i, int j, DenseMatrix target) {
+            int s = split[i][j];
+            if (s == i && factors.get(i).expression() instanceof StructuredMatrix structured) {
+                structured.composeLeftInto(DenseMatrix.materialized(value(s + 1, j)), target);
+                return;
+            }
+            if (s + 1 == j && factors.get(j).expression() instanceof StructuredMatrix structured) {
+                structured.composeRightInto(DenseMatrix.materialized(value(i, s)), target);
+                return;
+            }
+            var left = value(i, s);
+            var right = value(s + 1, j);
+            if (kernels != null && left instanceof DenseMatrix l && right instanceof DenseMatrix r)
+                kernels.multiplyInto(l, r, target);
+            else if (left instanceof BandMatrix || right instanceof BandMatrix) BandMatrix.multiply(left, right, target);
+            else Gemm.multiply(left, right, target);
+        }
+
+        private CoordinatesBased value(int i, int j) {
+            if (i == j) {
+                var factor = factors.get(i);
+                var operand = leaves.computeIfAbsent(factor.leaf(), Chain::operand);
+                if (!factor.transposed()) return operand;
+                if (operand instanceof InPlaceOperand inPlace) return inPlace.transpose();
+                return DenseMatrix.materialized(operand).transpose();
+            }
+            var key = List.copyOf(factors.subList(i, j + 1));
+            var known = partials.get(key);
+            if (known != null) return known;
+            var transposed = partials.get(transposeOf(key));
+            if (transposed != null) return transposed.transpose();
+
+            var product = DenseMatrix.zeros(factors.get(i).rows(), factors.get(j).cols());
+            multiplyInto(i, j, product);
+            partials.put(key, product);
+            return product;
+        }
+
+        private static CoordinatesBased operand(Matrix leaf) {
+            /* Off-heap and band matrices are read where they are, others are materialized into arrays */
+            if (leaf instanceof InPlaceOperand inPlace) return inPlace;
+            return DenseMatrix.materialized(leaf);
+        }
+
+        private static List<Factor> transposeOf(List<Factor> chain) {
+            var transposed = new ArrayList<Factor>(chain.size());
+            for (int i = chain.size() - 1; i >= 0; i--) transposed.add(chain.get(i).flip());
+            return transposed;
+        }
+
+        private static void zero(DenseMatrix target) {
+            for (int i = 0; i < target.colSize(); i++)
+                for (int j = 0; j < target.rowSize(); j++)
+                    target.setEntry(i, j, 0D);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package matrix;
+
+import static java.lang.Math.*;
+
+record FloatQR(FloatMatrix factors, float[] tau) {
+    /*
+        The compact QR factorization of CompactQR, in single precision: same reflectors H_k = Id - tau_k v_k v_k^T,
+        same storage of R and of the Householder vectors, on floats.
+
+        The factors hold A transposed (n x m, row after row): the column k of A, from which the reflector k is made,
+        and every column it is applied to, are contiguous runs of floats. Reflections are dot products and axpy
+        on the float kernels (see Kernels), which process twice as many entries per SIMD register as on doubles,
+        and read half the bytes. Entries come with about seven significant digits, relative to the norm of A.
+     */
+
+    FloatQR {
+        assert tau.length == min(factors.colSize(), factors.rowSize());
+    }
+
+    static FloatQR of(Matrix A) {
+        /* Column k of A is row k of the factors */
+        var a = FloatMatrix.copyOf(A.transpose());
+        int n = a.colSize(), m = a.rowSize(), p = min(m, n);
+        float[] data = a.data(), tau = new float[p];
+        var kernels = Kernels.current();
+        for (int k = 0; k < p; k++) {
+            tau[k] = generateReflector(data, k * m + k, m - k);
+            for (int j = k + 1; j < n; j++) reflect(kernels, data, k * m + k, tau[k], data, j * m + k, m - k);
+        }
+        return new FloatQR(a, tau);
+    }
+
+    private static float generateReflector(float[] x, int from, int length) {
+        /* As CompactQR.generateReflector, on the run x[from .. from + length), with its squares summed in double */
+        float alpha = x[from];
+        double tailSquares = 0D;
+        for (int i = from + 1; i < from + length; i++) tailSquares += (double) x[i] * x[i];
+        if (tailSquares == 0D) return 0F;
+
+        double beta = -copySign(hypot(alpha, sqrt(tailSquares)), alpha);
+        float scale = (float) (1D / (alpha - beta));
+        for (int i = from + 1; i < from + length; i++) x[i] *= scale;
+        x[from] = (float) beta;
+        return (float) ((beta - alpha) / beta);
+    }
+
+    private static void reflect(Kernels kernels, float[] v, int vFrom, float tau, float[] b, int bFrom, int length) {
+        /* b := (Id - tau v v^T) b, on runs of the given length, v_0 = 1 being implicit */
+        if (tau == 0F) return;
+        float s = tau * (b[bFrom] + kernels.dot(v, vFrom + 1, b, bFrom + 1, length - 1));
+        b[bFrom] -= s;
+        kernels.axpy(-s, v, vFrom + 1, b, bFrom + 1, length - 1);
+    }
+
+    int reflectorCount() {
+        return tau.length;
+    }
+
+    DenseMatrix formQ() {
+        /* The thin factor Q (m x p), as CompactQR.formQ: the reflectors applied to the p first columns of the identity */
+        int m = factors.rowSize(), p = tau.length;
+        var q = FloatMatrix.zeros(p, m);
+        float[] columns = q.data(), v = factors.data();
+        var kernels = Kernels.current();
+        for (int k = 0; k < p; k++) columns[k * m + k] = 1F;
+        for (int k = p - 1; k >= 0; k--)
+            for (int j = 0; j < p; j++) reflect(kernels, v, k * m + k, tau[k], columns, j * m + k, m - k);
+        return DenseMatrix.copyOf(q.transpose());
+    }
+
+    DenseMatrix r() {
+        /* Copies the upper-triangular factor R (p x n) out of the factors */
+        int n = factors.colSize(), p = tau.length;
+        var r = DenseMatrix.zeros(p, n);
+        for (int i = 0; i < p; i++)
+            for (int j = i; j < n; j++)
+                r.setEntry(i, j, factors.getEntry(j, i));
+        return r;
+    }
+}
@@ -0,0 +1,220 @@
+package matrix;
+
+import static java.lang.Math.*;
+
+class FrancisQR {
+    /*
+        Building blocks of the Francis double-shift QR iteration, on an upper Hessenberg matrix.
+
+        A double-shift step performs two QR steps at once, with the two eigenvalues of the trailing 2x2 block
+        as shifts. When those are complex conjugate, the product
+            (H - s1)(H - s2) = H^2 - (s1 + s2) H + s1 s2
+        is still real, so that no complex arithmetic is ever required.
+
+        The step is implicit: only the first column of the product above is computed,
+        the first reflector is built from it, and the resulting bulge is chased down the subdiagonal
+        by reflectors of size 3. Every step costs O(n^2).
+
+        All methods work on the active window [lo, hi] (bounds included) of the matrix.
+
+        When an accumulator Z is given, every transform is applied to the whole rows and columns of H
+        (not only to the window) and accumulated on the right of Z, so that at convergence
+            A = Z T Z^T
+        with T quasi upper-triangular (the real Schur form) and Z orthogonal.
+        Without accumulator (null), only the window is updated, which is enough for the eigenvalues.
+     */
+
+    private static final double ULP = ulp(1D);
+
+    static int deflationPoint(DenseMatrix h, int lo, int hi, double sensitivity) {
+        /*
+            Looks, from the bottom, for a negligible subdiagonal entry h(l, l-1) in the window.
+            Such an entry is set to zero, so that the window splits in two independent blocks.
+            Returns l, or lo if the window is unreduced.
+         */
+        for (int l = hi; l > lo; l--) {
+            double sub = abs(h.getEntry(l, l - 1));
+            double scale = abs(h.getEntry(l - 1, l - 1)) + abs(h.getEntry(l, l));
+            if (sub < sensitivity || sub <= ULP * scale) {
+                h.setEntry(l, l - 1, 0D);
+                return l;
+            }
+        }
+        return lo;
+    }
+
+    static void blockEigenvalues(DenseMatrix h, int k, double[] real, double[] imaginary) {
+        /*
+            Eigenvalues of the 2x2 block
+                [ a  b ]
+                [ c  d ]
+            at rows and columns k, k+1, as the roots of
+                x^2 - (a + d) x + (ad - bc)
+         */
+        blockEigenvalues(h.getEntry(k, k), h.getEntry(k, k + 1), h.getEntry(k + 1, k), h.getEntry(k + 1, k + 1),
+                k, real, imaginary);
+    }
+
+    static void blockEigenvalues(double a, double b, double c, double d, int k, double[] real, double[] imaginary) {
+        /* Same, for a block given by its entries: the eigenvalues go to the positions k, k+1 */
+        double p = (a - d) / 2;
+        double discriminant = p * p + b * c;
+        double middle = (a + d) / 2;
+        if (discriminant >= 0D) {
+            /* The larger root is computed first, the smaller one from the determinant, to avoid cancellations */
+            double larger = middle + copySign(sqrt(discriminant), middle);
+            real[k] = larger;
+            real[k + 1] = larger == 0D ? 0D : (a * d - b * c) / larger;
+            imaginary[k] = imaginary[k + 1] = 0D;
+        } else {
+            real[k] = real[k + 1] = middle;
+            imaginary[k] = sqrt(-discriminant);
+            imaginary[k + 1] = -imaginary[k];
+        }
+    }
+
+    static void sweep(DenseMatrix h, int lo, int hi, int iteration, DenseMatrix accumulator) {
+        /*
+            One implicit double-shift step on the unreduced window [lo, hi], of size at least 3.
+
+            Every ten steps without deflation, an exceptional shift is used instead of the Francis one,
+            to break possible cycles.
+         */
+        assert hi - lo >= 2;
+        double sum, product;
+        if (iteration % 10 == 0) {
+            double w = abs(h.getEntry(hi, hi - 1)) + abs(h.getEntry(hi - 1, hi - 2));
+            sum = 1.5 * w;
+            product = w * w;
+        } else {
+            sum = h.getEntry(hi - 1, hi - 1) + h.getEntry(hi, hi);
+            product = h.getEntry(hi - 1, hi - 1) * h.getEntry(hi, hi)
+                    - h.getEntry(hi - 1, hi) * h.getEntry(hi, hi - 1);
+        }
+
+        /* First column of (H - s1)(H - s2), which has only three non-zero entries */
+        double h00 = h.getEntry(lo, lo), h10 = h.getEntry(lo + 1, lo);
+        double x = h00 * h00 + h.getEntry(lo, lo + 1) * h10 - sum * h00 + product;
+        double y = h10 * (h00 + h.getEntry(lo + 1, lo + 1) - sum);
+        double z = h10 * h.getEntry(lo + 2, lo + 1);
+
+        for (int k = lo; k < hi - 1; k++) {
+            reflect3(h, lo, hi, k, x, y, z, accumulator);
+            x = h.getEntry(k + 1, k);
+            y = h.getEntry(k + 2, k);
+            if (k < hi - 2) z = h.getEntry(k + 3, k);
+        }
+        reflect2(h, lo, hi, x, y, accumulator);
+    }
+
+    static void standardize(DenseMatrix h, int k, DenseMatrix accumulator) {
+        /*
+            A 2x2 block with real eigenvalues is rotated into an upper-triangular one,
+            so that the Schur form only keeps 2x2 blocks for complex conjugate pairs.
+
+            The rotation G has for first column a unit eigenvector (x, y) of the block,
+            for the eigenvalue of larger magnitude, and G^T B G is upper triangular.
+         */
+        double a = h.getEntry(k, k), b = h.getEntry(k, k + 1);
+        double c = h.getEntry(k + 1, k), d = h.getEntry(k + 1, k + 1);
+        if (c == 0D) return;
+        double p = (a - d) / 2;
+        double discriminant = p * p + b * c;
+        if (discriminant < 0D) return;
+        double middle = (a + d) / 2;
+        double lambda = middle + copySign(sqrt(discriminant), middle);
+        /* Both (b, lambda - a) and (lambda - d, c) are eigenvectors: take the better conditioned */
+        double x = b, y = lambda - a;
+        if (abs(lambda - d) + abs(c) > abs(x) + abs(y)) {
+            x = lambda - d;
+            y = c;
+        }
+        double r = hypot(x, y);
+        double cos = x / r, sin = y / r;
+
+        int n = h.rowSize();
+        for (int j = k; j < n; j++) { // rows k, k+1 := G^T rows
+            double u = h.getEntry(k, j), w = h.getEntry(k + 1, j);
+            h.setEntry(k, j, cos * u + sin * w);
+            h.setEntry(k + 1, j, cos * w - sin * u);
+        }
+        for (int i = 0; i <= k + 1; i++) rotateColumns(h, i, k, cos, sin);
+        for (int i = 0; i < n; i++) rotateColumns(accumulator, i, k, cos, sin);
+        h.setEntry(k + 1, k, 0D);
+    }
+
+    private static void rotateColumns(DenseMatrix m, int i, int k, double cos, double sin) {
+        /* columns k, k+1 := columns * G, on row i */
+        double u = m.getEntry(i, k), w = m.getEntry(i, k + 1);
+        m.setEntry(i, k, cos * u + sin * w);
+        m.setEntry(i, k + 1, cos * w - sin * u);
+    }
+
+    private static void reflect3(DenseMatrix h, int lo, int hi, int k, double x, double y, double z, DenseMatrix accumulator) {
+        /*
+            Reflector P = Id - tau v v^T sending (x, y, z) onto a multiple of e_0,
+            applied as H := P H P on the rows and columns k, k+1, k+2.
+         */
+        double norm = sqrt(x * x + y * y + z * z);
+        if (norm == 0D) return;
+        double alpha = -copySign(norm, x);
+        double v0 = x - alpha;
+        double tau = 2D / (v0 * v0 + y * y + z * z);
+
+        int colTo = accumulator == null ? hi : h.rowSize() - 1;
+        int rowFrom = accumulator == null ? lo : 0;
+        for (int j = max(lo, k - 1); j <= colTo; j++) {
+            double p = tau * (v0 * h.getEntry(k, j) + y * h.getEntry(k + 1, j) + z * h.getEntry(k + 2, j));
+            h.addToEntry(k, j, -p * v0);
+            h.addToEntry(k + 1, j, -p * y);
+            h.addToEntry(k + 2, j, -p * z);
+        }
+        for (int i = rowFrom; i <= min(k + 3, hi); i++) reflectColumns3(h, i, k, tau, v0, y, z);
+        if (accumulator != null)
+            for (int i = 0; i < accumulator.colSize(); i++) reflectColumns3(accumulator, i, k, tau, v0, y, z);
+        if (k > lo) { // the bulge has moved one step down
+            h.setEntry(k, k - 1, alpha);
+            h.setEntry(k + 1, k - 1, 0D);
+            h.setEntry(k + 2, k - 1, 0D);
+        }
+    }
+
+    private static void reflectColumns3(DenseMatrix m, int i, int k, double tau, double v0, double v1, double v2) {
+        /* columns k, k+1, k+2 := columns * P, on row i */
+        double p = tau * (v0 * m.getEntry(i, k) + v1 * m.getEntry(i, k + 1) + v2 * m.getEntry(i, k + 2));
+        m.addToEntry(i, k, -p * v0);
+        m.addToEntry(i, k + 1, -p * v1);
+        m.addToEntry(i, k + 2, -p * v2);
+    }
+
+    private static void reflect2(DenseMatrix h, int lo, int hi, double x, double y, DenseMatrix accumulator) {
+        /* Last step of the chase: a reflector of size 2 on the rows and columns hi-1, hi */
+        double norm = hypot(x, y);
+        if (norm == 0D) return;
+        double alpha = -copySign(norm, x);
+        double v0 = x - alpha;
+        double tau = 2D / (v0 * v0 + y * y);
+        int k = hi - 1;
+
+        int colTo = accumulator == null ? hi : h.rowSize() - 1;
+        int rowFrom = accumulator == null ? lo : 0;
+        for (int j = max(lo, k - 1); j <= colTo; j++) {
+            double p = tau * (v0 * h.getEntry(k, j) + y * h.getEntry(k + 1, j));
+            h.addToEntry(k, j, -p * v0);
+            h.addToEntry(k + 1, j, -p * y);
+        }
+        for (int i = rowFrom; i <= hi; i++) reflectColumns2(h, i, k, tau, v0, y);
+        if (accumulator != null)
+            for (int i = 0; i < accumulator.colSize(); i++) reflectColumns2(accumulator, i, k, tau, v0, y);
+        if (k > lo) {
+            h.setEntry(k, k - 1, alpha);
+            h.setEntry(k + 1, k - 1, 0D);
+        }
+    }
+
+    private static void reflectColumns2(DenseMatrix m, int i, int k, double tau, double v0, double v1) {
+        double p = tau * (v0 * m.getEntry(i, k) + v1 * m.getEntry(i, k + 1));
+        m.addToEntry(i, k, -p * v0);
+        m.addToEntry(i, k + 1, -p * v1);
+    }
+}
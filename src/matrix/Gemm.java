@@ -0,0 +1,75 @@
+package matrix;
+
+import static java.lang.Math.min;
+
+class Gemm {
+    /*
+        Dense matrix multiplication C := C + A * B, on flat buffers.
+
+        The loops are blocked at two levels, after Goto's scheme:
+            - cache tiles: a KC x NC panel of B and a MC x KC panel of A are copied (packed)
+              into contiguous buffers, so that they stay in cache while being read again and again,
+              whatever the layout, leading dimension or transposition of the operands;
+            - register tiles: the packed panels are cut into slivers of R rows (of A) and NR columns (of B),
+              and a R x NR block of C is accumulated in registers over the whole depth of the panel.
+              NR is chosen by the micro-kernel: R for the scalar one, the number of lanes of a SIMD register
+              for the vector one.
+        Slivers at the edges are padded with zeros when packed, so that the micro-kernel never branches;
+        only the write-back of a block of C is restricted to its valid entries.
+        Operands are only read by the packing, entry by entry: any coordinate based matrix will do
+        (arrays, off-heap segments, ...), only C has to be an array.
+
+        For n x n operands, every entry of A and B is loaded O(n / R) or O(n / NR) times instead of O(n) times,
+        and every entry of C is written O(n / KC) times.
+        The micro-kernel itself is one of the Kernels (scalar, or on SIMD registers).
+     */
+
+    static final int R = 4;
+    private static final int MC = 64, KC = 256, NC = 512;
+
+    static void multiply(CoordinatesBased a, CoordinatesBased b, DenseMatrix c) {
+        int m = a.colSize(), depth = a.rowSize(), n = b.rowSize();
+        assert b.colSize() == depth;
+        assert c.colSize() == m && c.rowSize() == n;
+
+        var kernels = Kernels.current();
+        int nr = kernels.blockColumns();
+        double[] packedA = new double[roundUp(min(MC, m), R) * min(KC, depth)];
+        double[] packedB = new double[min(KC, depth) * roundUp(min(NC, n), nr)];
+        for (int j0 = 0; j0 < n; j0 += NC) {
+            int nc = min(NC, n - j0);
+            for (int p0 = 0; p0 < depth; p0 += KC) {
+                int kc = min(KC, depth - p0);
+                packB(b, p0, kc, j0, nc, nr, packedB);
+                for (int i0 = 0; i0 < m; i0 += MC) {
+                    int mc = min(MC, m - i0);
+                    packA(a, i0, mc, p0, kc, packedA);
+                    for (int jr = 0; jr < nc; jr += nr)
+                        for (int ir = 0; ir < mc; ir += R)
+                            kernels.microKernel(packedA, ir * kc, packedB, jr * kc, kc,
+                                    c, i0 + ir, j0 + jr, min(R, mc - ir), min(nr, nc - jr));
+                }
+            }
+        }
+    }
+
+    private static int roundUp(int size, int block) {
+        return (size + block - 1) / block * block;
+    }
+
+    private static void packA(CoordinatesBased a, int i0, int mc, int p0, int kc, double[] packed) {
+        /* Slivers of R rows, stored column after column: packed[ir * kc + p * R + r] = A(i0 + ir + r, p0 + p) */
+        for (int ir = 0; ir < mc; ir += R)
+            for (int p = 0; p < kc; p++)
+                for (int r = 0; r < R; r++)
+                    packed[ir * kc + p * R + r] = ir + r < mc ? a.getEntry(i0 + ir + r, p0 + p) : 0D;
+    }
+
+    private static void packB(CoordinatesBased b, int p0, int kc, int j0, int nc, int nr, double[] packed) {
+        /* Slivers of NR columns, stored row after row: packed[jr * kc + p * NR + r] = B(p0 + p, j0 + jr + r) */
+        for (int jr = 0; jr < nc; jr += nr)
+            for (int p = 0; p < kc; p++)
+                for (int r = 0; r < nr; r++)
+                    packed[jr * kc + p * nr + r] = jr + r < nc ? b.getEntry(p0 + p, j0 + jr + r) : 0D;
+    }
+}
@@ -0,0 +1,239 @@
+package matrix;
+
+import java.util.Arrays;
+
+import static java.lang.Math.hypot;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+
+record GivensQR(DenseMatrix q, DenseMatrix r) {
+    /*
+        A QR factorization A = Q R (Q m x m orthogonal, R m x n upper triangular) kept up to date
+        while A changes, instead of being computed again from scratch (after Golub and Van Loan, 12.5).
+
+        Every update turns R into a matrix that is almost triangular (one extra row, one extra column,
+        a Hessenberg part), and a sweep of Givens rotations brings it back to a triangle.
+        Every rotation G of two rows of R is compensated on the columns of Q (Q := Q G^T), so that Q R
+        stays A. A rotation costs O(n) on R and O(m) on Q: an update costs O(m^2) at most, instead of O(m n^2).
+
+        Q may also be left out (null): R is then n x n, and only rows can be appended or removed.
+        Appending a row then costs O(n^2), whatever the number of rows already seen, which suits
+        streams of observations: R^T R = A^T A is all that least squares problems need (see SparseQR).
+
+        Updates overwrite the buffers of the receiver, which must not be used afterwards.
+     */
+
+    private record Rotation(double c, double s) {
+        /* The rotation of the rows (i, k) sending (a, b) onto (hypot(a, b), 0) */
+
+        static Rotation cancelling(double a, double b) {
+            double rho = hypot(a, b);
+            return rho == 0D ? new Rotation(1D, 0D) : new Rotation(a / rho, b / rho);
+        }
+
+        void rows(DenseMatrix m, int i, int k, int from) {
+            for (int j = from; j < m.rowSize(); j++) {
+                double x = m.getEntry(i, j), y = m.getEntry(k, j);
+                m.setEntry(i, j, c * x + s * y);
+                m.setEntry(k, j, c * y - s * x);
+            }
+        }
+
+        void entries(double[] v, int i, int k) {
+            double x = v[i], y = v[k];
+            v[i] = c * x + s * y;
+            v[k] = c * y - s * x;
+        }
+    }
+
+    static GivensQR of(Matrix A) {
+        /* The full factorization, from the Householder one (see CompactQR) */
+        int m = A.colSize(), n = A.rowSize();
+        var compact = CompactQR.of(A);
+        var q = DenseMatrix.identity(m);
+        compact.applyQ(q);
+        var r = DenseMatrix.zeros(m, n);
+        for (int i = 0; i < min(m, n); i++)
+            for (int j = i; j < n; j++) r.setEntry(i, j, compact.factors().getEntry(i, j));
+        return new GivensQR(q, r);
+    }
+
+    static GivensQR withoutQ(int n) {
+        /* The R factor of a matrix of n columns and no row yet, rows coming by appendRow */
+        return new GivensQR(null, DenseMatrix.zeros(n, n));
+    }
+
+    private void compensate(Rotation rotation, int i, int k) {
+        if (q != null) rotation.rows(q.transpose(), i, k, 0);
+    }
+
+    GivensQR appendRow(double[] row) {
+        /*
+            A gets the row w at the bottom:
+                [ A   ]   [ Q 0 ] [ R   ]
+                [ w^T ] = [ 0 1 ] [ w^T ]
+            and the entries of w are cancelled one by one against the diagonal of R.
+         */
+        int n = r.rowSize();
+        assert row.length == n;
+        if (q == null) {
+            var x = row.clone();
+            for (int k = 0; k < n; k++) {
+                var rotation = Rotation.cancelling(r.getEntry(k, k), x[k]);
+                for (int j = k; j < n; j++) {
+                    double a = r.getEntry(k, j), b = x[j];
+                    r.setEntry(k, j, rotation.c * a + rotation.s * b);
+                    x[j] = rotation.c * b - rotation.s * a;
+                }
+            }
+            return this;
+        }
+        int m = r.colSize();
+        var q1 = DenseMatrix.zeros(m + 1, m + 1);
+        q1.subMatrix(0, 0, m, m).assign(q);
+        q1.setEntry(m, m, 1D);
+        var r1 = DenseMatrix.zeros(m + 1, n);
+        r1.subMatrix(0, 0, m, n).assign(r);
+        for (int j = 0; j < n; j++) r1.setEntry(m, j, row[j]);
+        var updated = new GivensQR(q1, r1);
+        for (int k = 0; k < min(n, m); k++) {
+            var rotation = Rotation.cancelling(r1.getEntry(k, k), r1.getEntry(m, k));
+            rotation.rows(r1, k, m, k);
+            updated.compensate(rotation, k, m);
+        }
+        return updated;
+    }
+
+    GivensQR removeRow(int index) {
+        /*
+            A loses its row of the given index. The row index of Q is rotated onto +-e_0, from the bottom up:
+            the same rotations make R upper Hessenberg, and then
+                Q = [ +-1  0  ]  (up to the order of rows),     R = [ +-(removed row) ]
+                    [  0   Q' ]                                      [       R'        ]
+            with R' upper triangular.
+         */
+        int m = r.colSize(), n = r.rowSize();
+        assert q != null && m > 1;
+        double[] row = new double[m];
+        q.getRow(index).copyInto(row, 0);
+        for (int i = m - 1; i > 0; i--) {
+            var rotation = Rotation.cancelling(row[i - 1], row[i]);
+            rotation.entries(row, i - 1, i);
+            if (i - 1 < n) rotation.rows(r, i - 1, i, i - 1);
+            compensate(rotation, i - 1, i);
+        }
+        var q1 = DenseMatrix.zeros(m - 1, m - 1);
+        for (int i = 0, t = 0; i < m; i++)
+            if (i != index) q.getRow(i).subView(1, m - 1).copyInto(q1.data(), q1.indexOf(t++, 0));
+        var r1 = r.subMatrix(1, 0, m - 1, n).copy();
+        return new GivensQR(q1, r1);
+    }
+
+    GivensQR removeRow(double[] row) {
+        /*
+            Without Q: the R' such that R'^T R' = R^T R - w w^T (after LINPACK's dchdd).
+            With R^T a = w, the vector (a, alpha), alpha = sqrt(1 - |a|^2), is rotated onto e_n from the bottom up,
+            and the same rotations, applied on [ R ; 0 ], yield [ R' ; w^T ].
+            The row must be one of the rows accumulated so far (or R^T R - w w^T would not be positive definite).
+         */
+        int n = r.rowSize();
+        assert q == null && row.length == n;
+        double[] a = row.clone();
+        for (int i = 0; i < n; i++) {
+            double s = a[i];
+            for (int k = 0; k < i; k++) s -= r.getEntry(k, i) * a[k];
+            a[i] = s / r.getEntry(i, i);
+        }
+        double norm = 0D;
+        for (double x : a) norm += x * x;
+        assert norm < 1D : "The row cannot be removed";
+        double alpha = sqrt(1D - norm);
+        double[] c = new double[n], s = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            var rotation = Rotation.cancelling(alpha, a[i]);
+            c[i] = rotation.c;
+            s[i] = rotation.s;
+            alpha = hypot(alpha, a[i]);
+        }
+        for (int j = 0; j < n; j++) {
+            double x = 0D;
+            for (int i = j; i >= 0; i--) {
+                double t = c[i] * x + s[i] * r.getEntry(i, j);
+                r.setEntry(i, j, c[i] * r.getEntry(i, j) - s[i] * x);
+                x = t;
+            }
+        }
+        return this;
+    }
+
+    GivensQR insertColumn(int index, double[] column) {
+        /*
+            A gets a new column a before the column index: Q^T a is inserted into R at the same place,
+            and its entries below the diagonal are cancelled from the bottom up. Rows below the new column
+            only hold its entry: no fill-in occurs.
+         */
+        int m = r.colSize(), n = r.rowSize();
+        assert q != null && column.length == m && index <= n;
+        var w = q.transpose().apply(ArraySlice.of(column)).toArray();
+        var r1 = DenseMatrix.zeros(m, n + 1);
+        for (int i = 0; i < m; i++)
+            for (int j = 0; j <= n; j++)
+                r1.setEntry(i, j, j < index ? r.getEntry(i, j) : j == index ? w[i] : r.getEntry(i, j - 1));
+        var updated = new GivensQR(q, r1);
+        for (int i = m - 1; i > index; i--) {
+            var rotation = Rotation.cancelling(r1.getEntry(i - 1, index), r1.getEntry(i, index));
+            rotation.rows(r1, i - 1, i, index);
+            updated.compensate(rotation, i - 1, i);
+        }
+        return updated;
+    }
+
+    GivensQR removeColumn(int index) {
+        /* A loses a column: R loses it too, and is upper Hessenberg from there on, which n - index rotations fix */
+        int m = r.colSize(), n = r.rowSize();
+        assert q != null && index < n;
+        var r1 = DenseMatrix.zeros(m, n - 1);
+        for (int i = 0; i < m; i++)
+            for (int j = 0; j < n - 1; j++) r1.setEntry(i, j, r.getEntry(i, j < index ? j : j + 1));
+        var updated = new GivensQR(q, r1);
+        for (int k = index; k < min(n - 1, m - 1); k++) {
+            var rotation = Rotation.cancelling(r1.getEntry(k, k), r1.getEntry(k + 1, k));
+            rotation.rows(r1, k, k + 1, k);
+            updated.compensate(rotation, k, k + 1);
+        }
+        return updated;
+    }
+
+    GivensQR rankOneUpdate(double[] u, double[] v) {
+        /*
+            A + u v^T = Q (R + w v^T), with w = Q^T u.
+            The rotations sending w onto +-|w| e_0 (from the bottom up) make R upper Hessenberg,
+            the update then only touches the first row, and a second sweep makes R triangular again.
+         */
+        int m = r.colSize(), n = r.rowSize();
+        assert q != null && u.length == m && v.length == n;
+        var w = q.transpose().apply(ArraySlice.of(u)).toArray();
+        for (int i = m - 1; i > 0; i--) {
+            var rotation = Rotation.cancelling(w[i - 1], w[i]);
+            rotation.entries(w, i - 1, i);
+            rotation.rows(r, i - 1, i, min(i - 1, n));
+            compensate(rotation, i - 1, i);
+        }
+        for (int j = 0; j < n; j++) r.addToEntry(0, j, w[0] * v[j]);
+        for (int k = 0; k < min(n, m - 1); k++) {
+            var rotation = Rotation.cancelling(r.getEntry(k, k), r.getEntry(k + 1, k));
+            rotation.rows(r, k, k + 1, k);
+            compensate(rotation, k, k + 1);
+        }
+        return this;
+    }
+
+    VectorView solve(VectorView b) {
+        /* The least squares solution of A x = b, as CompactQR.solve: x = R^-1 (Q^T b), on the n first rows */
+        int n = r.rowSize();
+        assert q != null && r.colSize() >= n;
+        var y = q.transpose().apply(b).toArray();
+        Triangular.backSubstitute(r, n - 1, y, 0, n);
+        return ArraySlice.of(Arrays.copyOf(y, n));
+    }
+}
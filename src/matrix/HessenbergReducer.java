@@ -0,0 +1,53 @@
+package matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.Math.max;
+
+interface HessenbergReducer {
+
+    default List<Householder> reduceToHessenberg(DenseMatrix work) {
+        /*
+            Reduces a square matrix A to upper Hessenberg form (zero below the first subdiagonal)
+            by a similarity transformation
+                H = Q^T A Q
+                Q = H0 * H1 * ... * H(n-3)
+            where Hk is the reflector cancelling the column k below its subdiagonal.
+
+            Since every Hk acts on the coordinates k+1, ..., n-1 only, applying it on the right
+            leaves the column k untouched, and the zeros produced on the left are kept.
+            The matrix is overwritten in place, the whole reduction costs O(n^3) and is done only once,
+            before the iterations.
+         */
+        assert work.rowSize() == work.colSize();
+        int n = work.colSize();
+        var chain = new ArrayList<Householder>(max(n - 2, 0));
+        for (int k = 0; k < n - 2; k++) {
+            double[] v = new double[n - k - 1];
+            reduceColumn(work, k, v);
+            chain.add(new Householder(v, n));
+        }
+        return chain;
+    }
+
+    static void reduceToHessenberg(DenseMatrix work, double[] scratch) {
+        /*
+            Same reduction, when the reflectors are not needed afterwards:
+            every one of them lives in the scratch buffer (of length at least n) until the next one.
+            Nothing is allocated.
+         */
+        assert work.rowSize() == work.colSize();
+        for (int k = 0; k < work.colSize() - 2; k++) reduceColumn(work, k, scratch);
+    }
+
+    private static void reduceColumn(DenseMatrix work, int k, double[] v) {
+        int n = work.colSize(), m = n - k - 1;
+        for (int i = 0; i < m; i++) v[i] = work.getEntry(k + 1 + i, k);
+        Householder.toReflector(v, m);
+        Householder.applyLeft(v, m, work, k);
+        Householder.applyRight(v, m, work);
+        for (int i = k + 2; i < n; i++) work.setEntry(i, k, 0D);
+    }
+
+}
@@ -0,0 +1,171 @@
+package matrix;
+
+import java.util.PrimitiveIterator;
+
+import static java.lang.Math.copySign;
+import static java.lang.Math.sqrt;
+
+record Householder(double[] v, int dim) implements CoordinatesBased, SymmetricMatrix {
+    /*
+        Compact form of a Householder reflector, embedded in the lower-right corner of the identity:
+
+            H = [ Id   0          ]
+                [ 0    Id - 2 v v^T ]
+
+        where v (of length m <= dim) is either a unit vector or zero.
+        Only v is stored: entries are available as coordinates, but the point of the representation
+        is that applying H to a vector x reduces to
+            x - 2 v (v^T x)
+        on the last m coordinates, that is: O(m) instead of O(dim^2).
+
+        H is symmetric (and orthogonal, and its own inverse).
+     */
+
+    Householder {
+        assert v.length <= dim;
+    }
+
+    static double toReflector(double[] x, int length) {
+        /*
+            Turns the first length entries of x, in place, into the vector v of the reflector
+            sending x onto a multiple of the first basis vector:
+                H x = -sign(x_0) |x| e_0
+            The sign is chosen so that no cancellation occurs when forming
+                v = x + sign(x_0) |x| e_0
+            which is then normalized. A zero x stays zero (H is the identity).
+            Returns the norm of x, so that H x is known to the caller.
+         */
+        double squares = 0D;
+        for (int k = 0; k < length; k++) squares += x[k] * x[k];
+        if (squares == 0D) return 0D;
+
+        double norm = sqrt(squares);
+        double x0 = x[0];
+        x[0] += copySign(norm, x0);
+        double vSquares = squares - x0 * x0 + x[0] * x[0];
+        double invertNorm = 1D / sqrt(vSquares);
+        for (int k = 0; k < length; k++) x[k] *= invertNorm;
+        return norm;
+    }
+
+    int shift() {
+        return dim - v.length;
+    }
+
+    @Override
+    public int rowSize() {
+        return dim;
+    }
+
+    @Override
+    public int colSize() {
+        return dim;
+    }
+
+    @Override
+    public double getEntry(int row, int col) {
+        double delta = row == col ? 1D : 0D;
+        int shift = shift();
+        if (row < shift || col < shift) return delta;
+        return delta - 2 * v[row - shift] * v[col - shift];
+    }
+
+    @Override
+    public VectorView getColumn(int index) {
+        return CoordinatesBased.super.getColumn(index);
+    }
+
+    @Override
+    public VectorView getRow(int index) {
+        return SymmetricMatrix.super.getRow(index);
+    }
+
+    @Override
+    public Matrix transpose() {
+        return this;
+    }
+
+    @Override
+    public VectorView apply(VectorView vec) {
+        /*
+            The reflection is computed on a primitive copy of vec, at traversal time,
+            so that the result stays as lazy as the default implementation.
+         */
+        class Reflected implements VectorView {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                var x = vec.toArray();
+                reflect(x, 0, 1);
+                return ArraySlice.of(x).iterator();
+            }
+
+            @Override
+            public int length() {
+                return dim;
+            }
+
+            @Override
+            public void copyInto(double[] dst, int offset) {
+                vec.copyInto(dst, offset);
+                reflect(dst, offset, 1);
+            }
+        } return new Reflected();
+    }
+
+    void reflect(double[] x, int offset, int stride) {
+        /* x := H x for the vector x_i = x[offset + i * stride], i < dim */
+        reflect(v, v.length, x, offset + shift() * stride, stride);
+    }
+
+    void applyLeft(DenseMatrix B) {
+        /*
+            B := H * B, column by column.
+            Every column costs O(m), so the whole block costs O(m * cols).
+         */
+        assert B.colSize() == dim;
+        applyLeft(v, v.length, B, 0);
+    }
+
+    void applyRight(DenseMatrix B) {
+        /*
+            B := B * H, row by row, using that
+                row(B * H, i) = H^T * row(B, i) = H * row(B, i)
+         */
+        assert B.rowSize() == dim;
+        applyRight(v, v.length, B);
+    }
+
+    /*
+        The kernels below take the vector v as the first length entries of an array,
+        so that callers may keep it in a buffer of their own, without any Householder instance.
+        The reflector acts on the last length coordinates.
+     */
+
+    static void applyLeft(double[] v, int length, DenseMatrix B, int colFrom) {
+        /* B := H * B, on the columns colFrom and after */
+        int step = B.layout() == DenseMatrix.Layout.ROW_MAJOR ? B.leadingDimension() : 1;
+        int shift = B.colSize() - length;
+        for (int j = colFrom; j < B.rowSize(); j++)
+            reflect(v, length, B.data(), B.indexOf(shift, j), step);
+    }
+
+    static void applyRight(double[] v, int length, DenseMatrix B) {
+        /* B := B * H */
+        int step = B.layout() == DenseMatrix.Layout.ROW_MAJOR ? 1 : B.leadingDimension();
+        int shift = B.rowSize() - length;
+        for (int i = 0; i < B.colSize(); i++)
+            reflect(v, length, B.data(), B.indexOf(i, shift), step);
+    }
+
+    private static void reflect(double[] v, int length, double[] x, int start, int stride) {
+        if (stride == 1) { // contiguous: x := x - 2 (v . x) v, on the kernels
+            var kernels = Kernels.current();
+            kernels.axpy(-2 * kernels.dot(v, 0, x, start, length), v, 0, x, start, length);
+            return;
+        }
+        double s = 0D;
+        for (int k = 0; k < length; k++) s += v[k] * x[start + k * stride];
+        s *= 2;
+        for (int k = 0; k < length; k++) x[start + k * stride] -= s * v[k];
+    }
+}
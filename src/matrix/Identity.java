@@ -0,0 +1,59 @@
+package matrix;
+
+record Identity(int size) implements StructuredMatrix, SymmetricMatrix {
+    /* The identity: products and applications return their operand as it is */
+
+    @Override
+    public int rowSize() {
+        return size;
+    }
+
+    @Override
+    public int colSize() {
+        return size;
+    }
+
+    @Override
+    public VectorView getRow(int index) {
+        return new UnitSlice(size, index, 1D);
+    }
+
+    @Override
+    public VectorView getColumn(int index) {
+        return new UnitSlice(size, index, 1D);
+    }
+
+    @Override
+    public Matrix transpose() {
+        return this;
+    }
+
+    @Override
+    public VectorView apply(VectorView vec) {
+        assert vec.length() == size;
+        return vec;
+    }
+
+    @Override
+    public Matrix composeLeft(Matrix rightFactor) {
+        assert rightFactor.colSize() == size;
+        return rightFactor;
+    }
+
+    @Override
+    public void composeLeftInto(DenseMatrix rightFactor, DenseMatrix target) {
+        assert rightFactor.colSize() == size;
+        target.assign(rightFactor);
+    }
+
+    @Override
+    public void composeRightInto(DenseMatrix leftFactor, DenseMatrix target) {
+        assert leftFactor.rowSize() == size;
+        target.assign(leftFactor);
+    }
+
+    @Override
+    public DenseMatrix materialize() {
+        return DenseMatrix.identity(size);
+    }
+}
@@ -0,0 +1,13 @@
+package matrix;
+
+interface InPlaceOperand extends CoordinatesBased {
+    /*
+        A matrix whose entries are read where they are stored, in O(1) each, by the packing of Gemm:
+        the expression optimizer hands it to the kernel as it is, instead of materializing it into an array first.
+        Its transpose is read in place as well.
+        Off-heap segments (see SegmentMatrix) and bands (see BandMatrix) are such operands.
+     */
+
+    @Override
+    InPlaceOperand transpose();
+}
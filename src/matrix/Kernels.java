@@ -0,0 +1,85 @@
+package matrix;
+
+abstract class Kernels {
+    /*
+        The innermost loops of the dense backend, over contiguous runs of primitive arrays:
+            - dot products,
+            - axpy (y := y + alpha x), from which Householder reflections are made,
+            - the register block of the matrix multiplication (see Gemm).
+        Dot products and axpy also exist in single precision, for the float path of the solver (see SinglePrecision):
+        vectors of floats hold twice as many lanes, and cost half the bandwidth.
+
+        Two implementations exist:
+            - ScalarKernels, plain loops, always available;
+            - VectorKernels, on the (incubating) Vector API of the JDK, which uses the SIMD instructions
+              of the host (AVX2, AVX-512, NEON, ...). It requires the module jdk.incubator.vector,
+              both to compile and to run: see the README.
+
+        The vector kernels are used whenever the module is there and the preferred species of the host
+        holds at least two doubles (otherwise the API would only emulate lanes), unless the system property
+            matrix.kernels=scalar
+        says otherwise. The choice can also be switched at runtime, with select.
+        Vector kernels sum in a different order than scalar ones: results may differ in the last bits.
+     */
+
+    private static final Kernels SCALAR = new ScalarKernels();
+    private static final Kernels VECTOR = loadVectorKernels();
+    private static volatile Kernels current =
+            VECTOR != null && !"scalar".equals(System.getProperty("matrix.kernels")) ? VECTOR : SCALAR;
+
+    private static Kernels loadVectorKernels() {
+        try {
+            return (Kernels) Class.forName("matrix.VectorKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) { // the module is not there, or SIMD registers are not
+            return null;
+        }
+    }
+
+    static Kernels current() {
+        return current;
+    }
+
+    static boolean vectorAvailable() {
+        return VECTOR != null;
+    }
+
+    static boolean select(boolean vector) {
+        /* Switches to the vector kernels (when available) or to the scalar ones; returns whether vector kernels are used */
+        current = vector && VECTOR != null ? VECTOR : SCALAR;
+        return current == VECTOR;
+    }
+
+    static double dot(VectorView row, double[] x) {
+        /*
+            row . x, for any row: contiguous slices of dense matrices go through the kernels,
+            views that know better (sparse, off-heap, ...) compute it themselves
+         */
+        if (row instanceof ArraySlice slice && slice.stride() == 1)
+            return current.dot(slice.data(), slice.offset(), x, 0, x.length);
+        if (row instanceof DotProductView view)
+            return view.dot(x);
+        var rowView = row.iterator();
+        double stack = 0D;
+        for(double v : x) {
+            assert rowView.hasNext();
+            stack += v * rowView.nextDouble();
+        }
+        return stack;
+    }
+
+    abstract double dot(double[] x, int xFrom, double[] y, int yFrom, int length);
+
+    abstract void axpy(double alpha, double[] x, int xFrom, double[] y, int yFrom, int length);
+
+    abstract float dot(float[] x, int xFrom, float[] y, int yFrom, int length);
+
+    abstract void axpy(float alpha, float[] x, int xFrom, float[] y, int yFrom, int length);
+
+    int blockColumns() {
+        /* The number of columns NR of the register block of the multiplication (see Gemm) */
+        return Gemm.R;
+    }
+
+    abstract void microKernel(double[] a, int aFrom, double[] b, int bFrom, int kc,
+                              DenseMatrix c, int i, int j, int rows, int cols);
+}
@@ -0,0 +1,127 @@
+package matrix;
+
+record LowRankUpdate(double alpha, double[] u, double[] v) implements CoordinatesBased, StructuredMatrix {
+    /*
+        The rank-one update of the identity
+            M = Id + alpha u v^T
+        stored as its two vectors. Householder matrices (alpha = -2, u = v) and elementary eliminations are such.
+
+        Products are rank-one updates of the other factor:
+            M * B = B + alpha u (B^T v)^T,      A * M = A + alpha (A u) v^T
+        that is, a matrix-vector product and an outer product, in O(n^2).
+        When u and v are the very same array, M is symmetric and is its own transpose:
+        symmetric builds it as a SymmetricMatrix, so that callers (the symmetric paths of the eigenvalue solver,
+        transpose shortcuts, ...) know it from its type.
+     */
+
+    LowRankUpdate {
+        assert u.length == v.length;
+    }
+
+    static Symmetric symmetric(double alpha, double[] u) {
+        /* Id + alpha u u^T */
+        return new Symmetric(new LowRankUpdate(alpha, u, u));
+    }
+
+    record Symmetric(LowRankUpdate update) implements CoordinatesBased, StructuredMatrix, SymmetricMatrix {
+        /* A symmetric update (u == v), which products and applications hand over to the update itself */
+
+        Symmetric {
+            assert update.u() == update.v();
+        }
+
+        @Override
+        public int rowSize() {
+            return update.rowSize();
+        }
+
+        @Override
+        public int colSize() {
+            return update.colSize();
+        }
+
+        @Override
+        public double getEntry(int rowIndex, int colIndex) {
+            return update.getEntry(rowIndex, colIndex);
+        }
+
+        @Override
+        public VectorView getColumn(int index) {
+            return CoordinatesBased.super.getColumn(index);
+        }
+
+        @Override
+        public VectorView getRow(int index) {
+            return CoordinatesBased.super.getRow(index);
+        }
+
+        @Override
+        public Matrix transpose() {
+            return this;
+        }
+
+        @Override
+        public VectorView apply(VectorView vec) {
+            return update.apply(vec);
+        }
+
+        @Override
+        public void composeLeftInto(DenseMatrix rightFactor, DenseMatrix target) {
+            update.composeLeftInto(rightFactor, target);
+        }
+
+        @Override
+        public void composeRightInto(DenseMatrix leftFactor, DenseMatrix target) {
+            update.composeRightInto(leftFactor, target);
+        }
+    }
+
+    @Override
+    public int rowSize() {
+        return u.length;
+    }
+
+    @Override
+    public int colSize() {
+        return u.length;
+    }
+
+    @Override
+    public double getEntry(int rowIndex, int colIndex) {
+        return (rowIndex == colIndex ? 1D : 0D) + alpha * u[rowIndex] * v[colIndex];
+    }
+
+    @Override
+    public Matrix transpose() {
+        return u == v ? this : new LowRankUpdate(alpha, v, u);
+    }
+
+    @Override
+    public VectorView apply(VectorView vec) {
+        var x = vec.toArray();
+        assert x.length == u.length;
+        double s = 0D;
+        for (int i = 0; i < x.length; i++) s += v[i] * x[i];
+        s *= alpha;
+        for (int i = 0; i < x.length; i++) x[i] += s * u[i];
+        return ArraySlice.of(x);
+    }
+
+    @Override
+    public void composeLeftInto(DenseMatrix rightFactor, DenseMatrix target) {
+        assert rightFactor.colSize() == u.length;
+        var w = rightFactor.transpose().apply(ArraySlice.of(v)).toArray();
+        target.assign(rightFactor);
+        for (int i = 0; i < u.length; i++)
+            for (int j = 0; j < w.length; j++) target.addToEntry(i, j, alpha * u[i] * w[j]);
+    }
+
+    @Override
+    public void composeRightInto(DenseMatrix leftFactor, DenseMatrix target) {
+        assert leftFactor.rowSize() == u.length;
+        var w = leftFactor.apply(ArraySlice.of(u)).toArray();
+        target.assign(leftFactor);
+        for (int i = 0; i < w.length; i++)
+            for (int j = 0; j < v.length; j++) target.addToEntry(i, j, alpha * w[i] * v[j]);
+    }
+}
@@ -12,7 +12,7 @@ public interface Matrix {
     VectorView getRow(int index);
 
     default Matrix transpose() {
-        class TransposeMatrix implements Matrix {
+        class TransposeMatrix implements Transposed {
             /*
                 For a matrix A,
                     row(A) = col(A^T)
@@ -52,36 +52,77 @@ public interface Matrix {
             public Matrix transpose() {
                 return Matrix.this;
             }
+
+            @Override
+            public Matrix original() {
+                return Matrix.this;
+            }
         } return new TransposeMatrix();
     }
 
+    default Matrix materialize() {
+        /*
+            Evaluates the matrix once and for all into a flat buffer.
+
+            Lazy matrices (products, transposes, ...) recompute their entries every time they are read,
+            which is fine for a few entries, and wasteful as soon as the whole matrix is to be read.
+            Products, in particular, are computed by a cache-friendly kernel instead of row by row,
+            in the order chosen by the ExpressionOptimizer.
+            Dense matrices are returned as they are.
+         */
+        return DenseMatrix.copyOf(this);
+    }
+
+    default Matrix cached(long byteBudget) {
+        /*
+            Decorates the matrix with a bounded cache of its rows and columns (see CachedMatrix),
+            worth it for lazy matrices whose slices are read many times.
+         */
+        return CachedMatrix.of(this, byteBudget);
+    }
+
     default VectorView apply(VectorView vec) {
         /*
             The computation of A * v for a given vector v,
             follows the rule
                 (A * v)_i = A_{i*} * v
             that is : the ith coordinate is the product of the ith row of A against v
+
+            The vector v is copied once, when the view is built, into a primitive array,
+            so that every row is multiplied against direct array reads
+            (and contiguous rows of dense matrices by the SIMD kernels, see Kernels),
+            and that reading a single coordinate costs a single row product.
          */
         var length = colSize();
-        return () -> new PrimitiveIterator.OfDouble() {
-            int cursor = 0;
+        var x = vec.toArray();
+        class Impl implements VectorView {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                return new PrimitiveIterator.OfDouble() {
+                    int cursor = 0;
+
+                    @Override
+                    public double nextDouble() {
+                        return Kernels.dot(Matrix.this.getRow(cursor++), x);
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return cursor < length;
+                    }
+                };
+            }
 
             @Override
-            public double nextDouble() {
-                var rowView = Matrix.this.getRow(cursor++).iterator();
-                double stack = 0D;
-                for(var it = vec.iterator(); it.hasNext();) {
-                    assert rowView.hasNext();
-                    stack += it.nextDouble() * rowView.nextDouble();
-                }
-                return stack;
+            public int length() {
+                return length;
             }
 
             @Override
-            public boolean hasNext() {
-                return cursor < length;
+            public double get(int index) {
+                return Kernels.dot(Matrix.this.getRow(index), x);
             }
-        };
+        } return new Impl();
     }
 
     default Matrix composeLeft(Matrix rightFactor) {
@@ -89,17 +130,23 @@ public interface Matrix {
             Composing to the left with respect to A, is the arrow
                 B --> A * B
 
-            This is a group action (but we do not encode the identity in a specific way).
+            This is a group action, whose identity is encoded in a specific way (see Identity).
+            Other products are lazy, structured factors included (see StructuredMatrix):
+            nothing is computed until the product is read or materialized.
          */
-        record Prod(Matrix left, Matrix right) implements ProductOfTwo{}
-        return new Prod(this, rightFactor);
+        if (rightFactor instanceof Identity) {
+            assert rightFactor.colSize() == rowSize();
+            return this;
+        }
+        return ProductOfTwo.of(this, rightFactor);
     }
 
     static String toString(Matrix matrix) { // Java doesn't allow interfaces to extend methods of Object
         var big = new StringJoiner(System.lineSeparator());
-        for (int i = 0; i < matrix.rowSize(); i++) {
+        var dense = matrix.materialize();
+        for (int i = 0; i < dense.colSize(); i++) {
             var joiner = new StringJoiner("; ");
-            for (var it = matrix.getRow(i).iterator(); it.hasNext(); )
+            for (var it = dense.getRow(i).iterator(); it.hasNext(); )
                 joiner.add("%.4f".formatted(it.nextDouble()));
             big.add("[ %s ]".formatted(joiner.toString()));
         }
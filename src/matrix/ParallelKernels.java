@@ -0,0 +1,124 @@
+package matrix;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+record ParallelKernels(Executor executor, int tasks, long threshold, boolean deterministic) {
+    /*
+        Matrix-vector and matrix-matrix products spread over several threads.
+
+        Work is split by blocks of rows of the result: every entry of the result is then computed
+        by a single task, in the very same order as the sequential kernels (Matrix.apply, Gemm),
+        so that results are bit-identical to them, whatever the number of tasks or the scheduling.
+
+        Tall-and-narrow results (fewer rows than tasks) leave most of the workers idle. Unless deterministic
+        results are requested, such products are split along the inner dimension instead: every task computes
+        a partial product over a range of the sum, and the partial results are added at the end.
+        The result is as accurate, but rounded differently than by the sequential kernel.
+
+        Products below the threshold (counted in multiply-adds) run on the calling thread.
+        Tasks are submitted to the executor, which may be any pool; the calling thread waits for them.
+     */
+
+    static final long DEFAULT_THRESHOLD = 1L << 18;
+
+    ParallelKernels {
+        assert tasks >= 1 && threshold >= 0L;
+    }
+
+    static ParallelKernels commonPool(boolean deterministic) {
+        return new ParallelKernels(
+                ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), DEFAULT_THRESHOLD, deterministic
+        );
+    }
+
+    VectorView apply(Matrix A, VectorView vec) {
+        /* A * v, with the rows of A read concurrently: A must tolerate concurrent reads */
+        int m = A.colSize(), n = A.rowSize();
+        var x = vec.toArray();
+        assert x.length == n;
+        double[] y = new double[m];
+        if ((long) m * n < threshold || tasks == 1) {
+            multiplyRows(A, x, y, 0, m);
+        } else if (deterministic || m >= tasks) {
+            forEachBlock(m, (index, from, to) -> multiplyRows(A, x, y, from, to));
+        } else {
+            /* The few rows are read once (a row of a lazy matrix may cost O(n) per entry), then cut in ranges */
+            double[][] rows = new double[m][];
+            forEachBlock(m, (index, from, to) -> {
+                for (int i = from; i < to; i++) rows[i] = A.getRow(i).toArray();
+            });
+            double[][] partials = new double[blocks(n)][];
+            forEachBlock(n, (index, from, to) -> {
+                var partial = new double[m];
+                for (int i = 0; i < m; i++) partial[i] = Kernels.current().dot(rows[i], from, x, from, to - from);
+                partials[index] = partial;
+            });
+            for (var partial : partials)
+                for (int i = 0; i < m; i++) y[i] += partial[i];
+        }
+        return ArraySlice.of(y);
+    }
+
+    private static void multiplyRows(Matrix A, double[] x, double[] y, int from, int to) {
+        for (int i = from; i < to; i++) y[i] = Kernels.dot(A.getRow(i), x);
+    }
+
+    DenseMatrix multiply(Matrix A, Matrix B) {
+        var c = DenseMatrix.zeros(A.colSize(), B.rowSize());
+        multiplyInto(DenseMatrix.materialized(A), DenseMatrix.materialized(B), c);
+        return c;
+    }
+
+    void multiplyInto(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        /* C := C + A * B, as Gemm.multiply */
+        int m = a.colSize(), depth = a.rowSize(), n = b.rowSize();
+        if ((long) m * depth * n < threshold || tasks == 1) {
+            Gemm.multiply(a, b, c);
+        } else if (deterministic || m >= tasks * Gemm.R) {
+            forEachBlock(m, (index, from, to) -> Gemm.multiply(
+                    a.subMatrix(from, 0, to - from, depth), b, c.subMatrix(from, 0, to - from, n)
+            ));
+        } else {
+            var partials = new DenseMatrix[blocks(depth)];
+            forEachBlock(depth, (index, from, to) -> {
+                var partial = DenseMatrix.zeros(m, n);
+                Gemm.multiply(a.subMatrix(0, from, m, to - from), b.subMatrix(from, 0, to - from, n), partial);
+                partials[index] = partial;
+            });
+            for (var partial : partials)
+                for (int i = 0; i < m; i++)
+                    for (int j = 0; j < n; j++)
+                        c.addToEntry(i, j, partial.getEntry(i, j));
+        }
+    }
+
+    private interface Block {
+        void run(int index, int from, int to);
+    }
+
+    private int blocks(int size) {
+        return max(1, min(tasks, size));
+    }
+
+    private void forEachBlock(int size, Block block) {
+        int blocks = blocks(size);
+        var futures = new CompletableFuture<?>[blocks];
+        for (int b = 0; b < blocks; b++) {
+            int index = b, from = (int) ((long) size * b / blocks), to = (int) ((long) size * (b + 1) / blocks);
+            futures[b] = CompletableFuture.runAsync(() -> block.run(index, from, to), executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package matrix;
+
+record Permutation(int[] order, int[] inverse) implements StructuredMatrix {
+    /*
+        The permutation matrix P whose row i is e_order[i], that is:
+            (P x)_i = x_order[i]
+        It is stored as the permutation and its inverse (the columns: column j of P is e_inverse[j]).
+            P * B picks the rows of B, A * P moves the columns of A,
+        P^T = P^-1 swaps both arrays, and the product of two permutations is their composition.
+     */
+
+    Permutation {
+        assert order.length == inverse.length;
+    }
+
+    static Permutation of(int... order) {
+        int[] inverse = new int[order.length];
+        for (int i = 0; i < order.length; i++) inverse[order[i]] = i;
+        return new Permutation(order, inverse);
+    }
+
+    @Override
+    public int rowSize() {
+        return order.length;
+    }
+
+    @Override
+    public int colSize() {
+        return order.length;
+    }
+
+    @Override
+    public VectorView getRow(int index) {
+        return new UnitSlice(order.length, order[index], 1D);
+    }
+
+    @Override
+    public VectorView getColumn(int index) {
+        return new UnitSlice(order.length, inverse[index], 1D);
+    }
+
+    @Override
+    public Permutation transpose() {
+        return new Permutation(inverse, order);
+    }
+
+    @Override
+    public VectorView apply(VectorView vec) {
+        var x = vec.toArray();
+        assert x.length == order.length;
+        double[] y = new double[x.length];
+        for (int i = 0; i < y.length; i++) y[i] = x[order[i]];
+        return ArraySlice.of(y);
+    }
+
+    @Override
+    public Matrix composeLeft(Matrix rightFactor) {
+        assert rightFactor.colSize() == order.length;
+        if (rightFactor instanceof Permutation other) {
+            /* (P Q x)_i = (Q x)_order[i] = x_other.order[order[i]] */
+            int[] composed = new int[order.length];
+            for (int i = 0; i < composed.length; i++) composed[i] = other.order[order[i]];
+            return of(composed);
+        }
+        return StructuredMatrix.super.composeLeft(rightFactor);
+    }
+
+    @Override
+    public void composeLeftInto(DenseMatrix rightFactor, DenseMatrix target) {
+        /* The row order[i] of B goes to the row i of P B */
+        assert rightFactor.colSize() == order.length;
+        int n = rightFactor.rowSize();
+        for (int i = 0; i < order.length; i++)
+            target.subMatrix(i, 0, 1, n).assign(rightFactor.subMatrix(order[i], 0, 1, n));
+    }
+
+    @Override
+    public void composeRightInto(DenseMatrix leftFactor, DenseMatrix target) {
+        /* The column k of A goes to the column order[k] of A P */
+        assert leftFactor.rowSize() == order.length;
+        int m = leftFactor.colSize();
+        for (int k = 0; k < order.length; k++)
+            target.subMatrix(0, order[k], m, 1).assign(leftFactor.subMatrix(0, k, m, 1));
+    }
+}
@@ -1,5 +1,7 @@
 package matrix;
 
+import java.util.function.IntFunction;
+
 interface ProductOfTwo extends Matrix {
     /*
         The product of two matrices, in its simplest form
@@ -8,6 +10,11 @@ interface ProductOfTwo extends Matrix {
     Matrix left();
     Matrix right();
 
+    static ProductOfTwo of(Matrix left, Matrix right) {
+        record Prod(Matrix left, Matrix right) implements ProductOfTwo{}
+        return new Prod(left, right);
+    }
+
     @Override
     default int rowSize() {
         return right().rowSize();
@@ -20,14 +27,45 @@ interface ProductOfTwo extends Matrix {
 
     @Override
     default VectorView getColumn(int index) {
-        /* col(A * B, i) = A * col(B, i) */
-        return left().apply(right().getColumn(index));
+        /*
+            col(A * B, i) = A * col(B, i)
+            When col(B, i) is sparse (structured or sparse factors), only the matching columns of A are combined.
+         */
+        var column = right().getColumn(index);
+        if (column instanceof SparseVectorView sparse) return combination(sparse, left()::getColumn, colSize());
+        return left().apply(column);
     }
 
     @Override
     default VectorView getRow(int index) {
-        /* row(A * B, i) = B^T * row(A, i) */
-        return right().transpose().apply(left().getRow(index));
+        /*
+            row(A * B, i) = B^T * row(A, i)
+            When row(A, i) is sparse (structured or sparse factors), only the matching rows of B are combined.
+         */
+        var row = left().getRow(index);
+        if (row instanceof SparseVectorView sparse) return combination(sparse, right()::getRow, rowSize());
+        return right().transpose().apply(row);
+    }
+
+    private static VectorView combination(SparseVectorView weights, IntFunction<VectorView> slices, int length) {
+        /*
+            sum over k of weights_k slice(k), in O(nonZeros * length) instead of a matrix-vector product.
+            A single unit weight (identity, permutation) picks its slice as it is, without copying it.
+         */
+        if (weights.nonZeros() == 1 && weights.value(0) == 1D) return slices.apply(weights.index(0));
+        double[] sum = new double[length], slice = new double[length];
+        for (int k = 0; k < weights.nonZeros(); k++) {
+            slices.apply(weights.index(k)).copyInto(slice, 0);
+            double w = weights.value(k);
+            for (int j = 0; j < length; j++) sum[j] += w * slice[j];
+        }
+        return ArraySlice.of(sum);
+    }
+
+    @Override
+    default VectorView apply(VectorView vec) {
+        /* (A * B) v = A (B v): two matrix-vector products instead of a matrix-matrix one */
+        return left().apply(right().apply(vec));
     }
 
     @Override
@@ -1,6 +1,6 @@
 package matrix;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.lang.Double.isFinite;
@@ -10,43 +10,97 @@ import static java.util.Collections.singletonList;
 interface QRDecomposer {
 
     default List<Matrix> householderSuccessiveReflections(Matrix M) {
-        if (M.rowSize() == 1) return singletonList(M);
-
-        record CachedProduct(Matrix left, Matrix right) implements ProductOfTwo {
-            @Override
-            public Matrix left() {
-                return left;
-            }
-
-            @Override
-            public Matrix right() {
-                return right;
-            }
-
-            @Override
-            public VectorView getColumn(int index) {
-                var data = right.getColumn(index).toArray();
-                return left.apply(() -> Arrays.stream(data).iterator());
-            }
-        }
+        if (M.rowSize() == 1 && M.colSize() == 1) return singletonList(M);
+        return List.copyOf(triangularize(DenseMatrix.copyOf(M)));
+    }
+
+    default List<Householder> triangularize(DenseMatrix work) {
+        /*
+            Given H0, H1, ..., Hk the successive reflections, the working matrix is
+            overwritten in place by
+                R = Hk * ... * H1 * H0 * A
 
-        Matrix[] chain = new Matrix[M.rowSize() - 1];
-        chain[0] = step(M, 0);
-        Matrix cumul = new CachedProduct(chain[0], M);
+            Reflections are kept in their compact form, and applied to the trailing columns
+            of the working matrix only: the leading ones are already triangular.
+            A reflector costs O(m n) to apply, and the whole decomposition O(m n^2).
 
-        for(int i = 1; i < chain.length; i++) {
-            chain[i] = step(cumul, i);
-            cumul = new CachedProduct(chain[i], cumul);
+            The matrix may be rectangular (m x n): there is a reflector for each of the min(m - 1, n) first columns,
+            every one of them of dimension m, and R is m x n (upper trapezoidal when m < n).
+         */
+        int m = work.colSize(), n = work.rowSize();
+        var chain = new ArrayList<Householder>(max(min(m - 1, n), 0));
+        for (int i = 0; i < min(m - 1, n); i++) {
+            var reflector = reflectorOf(work, i);
+            reflector.applyLeft(work.subMatrix(0, i, m, n - i));
+            chain.add(reflector);
         }
-        return Arrays.asList(chain);
+        return chain;
+    }
+
+    default CompactQR compactDecomposition(Matrix M) {
+        /*
+            Same decomposition, stored the LAPACK way (see CompactQR):
+            a single buffer holding R and the reflectors, instead of a list of views.
+         */
+        return CompactQR.of(M);
+    }
+
+    default DenseMatrix solve(Matrix A, Matrix B) {
+        /*
+            The least squares solution X of A X = B, for all the columns of B at once,
+            from a single factorization of A (see CompactQR.solve): Q^T is applied implicitly, then R is inverted.
+         */
+        return compactDecomposition(A).solve(B);
+    }
+
+    default GivensQR updatableDecomposition(Matrix A) {
+        /*
+            Full QR, meant to be updated as rows, columns or rank-one terms are added or removed (see GivensQR),
+            in O(m^2) per change instead of a new O(m n^2) factorization.
+         */
+        return GivensQR.of(A);
+    }
+
+    default FloatQR singleDecomposition(Matrix M) {
+        /*
+            Same compact decomposition, in single precision (see FloatQR):
+            half the memory and bandwidth, twice the SIMD width, for about seven significant digits.
+         */
+        return FloatQR.of(M);
+    }
+
+    default SparseQR givensDecomposition(SparseMatrix A) {
+        /*
+            Q-less QR of a sparse matrix by Givens rotations, which keep the fill-in of R low (see SparseQR).
+         */
+        return SparseQR.of(A);
+    }
+
+    default BandQR bandDecomposition(BandMatrix A) {
+        /*
+            QR of a band matrix by Givens rotations, in O(n p (p + q)) for bandwidths p and q (see BandQR).
+         */
+        return BandQR.of(A);
     }
 
     default Matrix step(Matrix M, int rank) {
+        /* The reflector (of dimension m, the number of rows) cancelling the column rank below its diagonal */
+        return reflectorOf(M, rank);
+    }
+
+    default DenseMatrix tallSkinnyR(Matrix A) {
+        /*
+            The R factor of a tall and skinny matrix (m >> n), by blocks of rows factored in parallel
+            on the common pool, and combined along a reduction tree (see TallSkinnyQR).
+         */
+        return TallSkinnyQR.r(A, ParallelKernels.commonPool(true));
+    }
+
+    private static Householder reflectorOf(Matrix M, int rank) {
         int size = M.colSize() - rank;
         var x = M.getColumn(rank).subView(rank, size).toArray();
         mutateToCancellingVector(x);
-        var householderMatrix = Matrices.householder(x);
-        return Matrices.upperAugmentWithIdentity(householderMatrix, M.colSize());
+        return new Householder(x, M.colSize());
     }
 
     private static void mutateToCancellingVector(double[] x) {
@@ -59,7 +113,7 @@ interface QRDecomposer {
 
     private static double normOfTail(double[] x) {
         double s = 0D;
-        for(int i = 1; i < x.length; i++) s += pow(x[i], 2);
+        for(int i = 1; i < x.length; i++) s += x[i] * x[i];
         return sqrt(s);
     }
 
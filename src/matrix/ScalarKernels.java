@@ -0,0 +1,60 @@
+package matrix;
+
+final class ScalarKernels extends Kernels {
+    /* Plain loops, left to the JIT */
+
+    @Override
+    double dot(double[] x, int xFrom, double[] y, int yFrom, int length) {
+        double s = 0D;
+        for (int k = 0; k < length; k++) s += x[xFrom + k] * y[yFrom + k];
+        return s;
+    }
+
+    @Override
+    void axpy(double alpha, double[] x, int xFrom, double[] y, int yFrom, int length) {
+        for (int k = 0; k < length; k++) y[yFrom + k] += alpha * x[xFrom + k];
+    }
+
+    @Override
+    float dot(float[] x, int xFrom, float[] y, int yFrom, int length) {
+        float s = 0F;
+        for (int k = 0; k < length; k++) s += x[xFrom + k] * y[yFrom + k];
+        return s;
+    }
+
+    @Override
+    void axpy(float alpha, float[] x, int xFrom, float[] y, int yFrom, int length) {
+        for (int k = 0; k < length; k++) y[yFrom + k] += alpha * x[xFrom + k];
+    }
+
+    @Override
+    void microKernel(double[] a, int aFrom, double[] b, int bFrom, int kc,
+                     DenseMatrix c, int i, int j, int rows, int cols) {
+        double c00 = 0D, c01 = 0D, c02 = 0D, c03 = 0D;
+        double c10 = 0D, c11 = 0D, c12 = 0D, c13 = 0D;
+        double c20 = 0D, c21 = 0D, c22 = 0D, c23 = 0D;
+        double c30 = 0D, c31 = 0D, c32 = 0D, c33 = 0D;
+        for (int p = 0, x = aFrom, y = bFrom; p < kc; p++, x += Gemm.R, y += Gemm.R) {
+            double a0 = a[x], a1 = a[x + 1], a2 = a[x + 2], a3 = a[x + 3];
+            double b0 = b[y], b1 = b[y + 1], b2 = b[y + 2], b3 = b[y + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+        store(c, i, j, rows, cols, 0, c00, c01, c02, c03);
+        store(c, i, j, rows, cols, 1, c10, c11, c12, c13);
+        store(c, i, j, rows, cols, 2, c20, c21, c22, c23);
+        store(c, i, j, rows, cols, 3, c30, c31, c32, c33);
+    }
+
+    private static void store(DenseMatrix c, int i, int j, int rows, int cols, int r,
+                              double x0, double x1, double x2, double x3) {
+        /* Adds the row r of a register block to C, leaving out the padding */
+        if (r >= rows) return;
+        c.addToEntry(i + r, j, x0);
+        if (cols > 1) c.addToEntry(i + r, j + 1, x1);
+        if (cols > 2) c.addToEntry(i + r, j + 2, x2);
+        if (cols > 3) c.addToEntry(i + r, j + 3, x3);
+    }
+}
@@ -0,0 +1,163 @@
+package matrix;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.checkFromIndexSize;
+
+record SegmentMatrix(MemorySegment segment, long offset, long leadingDimension, int colSize, int rowSize,
+                     DenseMatrix.Layout layout) implements InPlaceOperand, AutoCloseable {
+    /*
+        A dense matrix stored outside of the heap, in a memory segment of the (incubating) foreign memory API.
+
+        Large matrices held in arrays are scanned and moved by the garbage collector, and must be read
+        from disk into the heap before use. Segments are neither: they are allocated natively, or mapped from a file
+        (the pages are then loaded by the system as they are read), and released deterministically,
+        when their resource scope is closed.
+
+        The addressing is that of DenseMatrix, counted in doubles:
+            offset + i * ld + j        (row-major)
+            offset + j * ld + i        (column-major)
+        so that sub-matrices and transposes are views over the very same segment.
+
+        Files hold the entries row after row, as raw doubles in the native byte order, without any header:
+        the shape is known by the caller.
+
+        Segments are read in place by the kernels that only read their operands:
+        the packing of Gemm (and thus the products planned by the ExpressionOptimizer, see InPlaceOperand),
+        and matrix-vector products (see DotProductView).
+        Materializing the matrix copies it into the heap.
+        The module jdk.incubator.foreign is required, both to compile and to run: see the README.
+        Nothing else in the package names SegmentMatrix or SegmentSlice, so that both may be left out of builds
+        without the module.
+     */
+
+    SegmentMatrix {
+        assert colSize >= 0 && rowSize >= 0;
+        assert leadingDimension >= (layout == DenseMatrix.Layout.ROW_MAJOR ? rowSize : colSize);
+        assert colSize == 0 || rowSize == 0
+                || (offset + (layout == DenseMatrix.Layout.ROW_MAJOR
+                        ? (colSize - 1) * leadingDimension + rowSize
+                        : (rowSize - 1) * leadingDimension + colSize)) * Double.BYTES <= segment.byteSize()
+                : "The segment is too short for the requested shape";
+    }
+
+    static SegmentMatrix allocate(int colSize, int rowSize) {
+        /* A zero matrix in a scope of its own, which may be read from any thread, and is released by close */
+        return allocate(colSize, rowSize, ResourceScope.newSharedScope());
+    }
+
+    static SegmentMatrix allocate(int colSize, int rowSize, ResourceScope scope) {
+        var segment = MemorySegment.allocateNative((long) colSize * rowSize * Double.BYTES, 64L, scope);
+        return new SegmentMatrix(segment, 0L, rowSize, colSize, rowSize, DenseMatrix.Layout.ROW_MAJOR);
+    }
+
+    static SegmentMatrix copyOf(Matrix M, ResourceScope scope) {
+        var copy = allocate(M.colSize(), M.rowSize(), scope);
+        double[] row = new double[M.rowSize()];
+        var rowSegment = MemorySegment.ofArray(row);
+        for (int i = 0; i < M.colSize(); i++) {
+            M.getRow(i).copyInto(row, 0);
+            copy.segment.asSlice((long) i * row.length * Double.BYTES, rowSegment.byteSize()).copyFrom(rowSegment);
+        }
+        return copy;
+    }
+
+    static SegmentMatrix map(Path file, int colSize, int rowSize, FileChannel.MapMode mode, ResourceScope scope)
+            throws IOException {
+        /*
+            The matrix stored in the file, without reading it: entries are loaded as they are accessed.
+            With READ_WRITE, writes go to the file (see force); the file is extended when too short.
+         */
+        var segment = MemorySegment.mapFile(file, 0L, (long) colSize * rowSize * Double.BYTES, mode, scope);
+        return new SegmentMatrix(segment, 0L, rowSize, colSize, rowSize, DenseMatrix.Layout.ROW_MAJOR);
+    }
+
+    static void store(Matrix M, Path file) throws IOException {
+        /*
+            Writes M into the file, in the format read by map.
+            The file is created when missing, and emptied first otherwise (the mapping then extends it):
+            it ends up holding the entries of M, and nothing else.
+         */
+        try (var channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            assert channel.size() == 0L;
+        }
+        try (var scope = ResourceScope.newConfinedScope()) {
+            var mapped = map(file, M.colSize(), M.rowSize(), FileChannel.MapMode.READ_WRITE, scope);
+            mapped.assign(M);
+            mapped.force();
+        }
+    }
+
+    long indexOf(int rowIndex, int colIndex) {
+        return layout == DenseMatrix.Layout.ROW_MAJOR
+                ? offset + rowIndex * leadingDimension + colIndex
+                : offset + colIndex * leadingDimension + rowIndex;
+    }
+
+    @Override
+    public double getEntry(int rowIndex, int colIndex) {
+        return MemoryAccess.getDoubleAtIndex(segment, indexOf(rowIndex, colIndex));
+    }
+
+    @Override
+    public VectorView getRow(int index) {
+        return new SegmentSlice(segment, indexOf(index, 0), rowSize,
+                layout == DenseMatrix.Layout.ROW_MAJOR ? 1L : leadingDimension);
+    }
+
+    @Override
+    public VectorView getColumn(int index) {
+        return new SegmentSlice(segment, indexOf(0, index), colSize,
+                layout == DenseMatrix.Layout.ROW_MAJOR ? leadingDimension : 1L);
+    }
+
+    void setEntry(int rowIndex, int colIndex, double value) {
+        MemoryAccess.setDoubleAtIndex(segment, indexOf(rowIndex, colIndex), value);
+    }
+
+    void addToEntry(int rowIndex, int colIndex, double value) {
+        long index = indexOf(rowIndex, colIndex);
+        MemoryAccess.setDoubleAtIndex(segment, index, MemoryAccess.getDoubleAtIndex(segment, index) + value);
+    }
+
+    void assign(Matrix source) {
+        /* Row by row, through a single buffer on the heap */
+        assert source.colSize() == colSize && source.rowSize() == rowSize;
+        double[] row = new double[rowSize];
+        for (int i = 0; i < colSize; i++) {
+            source.getRow(i).copyInto(row, 0);
+            for (int j = 0; j < rowSize; j++) setEntry(i, j, row[j]);
+        }
+    }
+
+    SegmentMatrix subMatrix(int rowFrom, int colFrom, int rows, int cols) {
+        checkFromIndexSize(rowFrom, rows, colSize);
+        checkFromIndexSize(colFrom, cols, rowSize);
+        return new SegmentMatrix(segment, indexOf(rowFrom, colFrom), leadingDimension, rows, cols, layout);
+    }
+
+    @Override
+    public SegmentMatrix transpose() {
+        return new SegmentMatrix(segment, offset, leadingDimension, rowSize, colSize, layout.flip());
+    }
+
+    void force() {
+        /* Writes back the changes of a mapped matrix to its file */
+        segment.force();
+    }
+
+    @Override
+    public void close() {
+        /* Releases the memory (or the mapping) of every matrix of the same scope */
+        segment.scope().close();
+    }
+}
@@ -0,0 +1,74 @@
+package matrix;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+
+import java.util.PrimitiveIterator;
+
+import static java.util.Objects.checkFromIndexSize;
+
+record SegmentSlice(MemorySegment segment, long offset, int length, long stride) implements DotProductView {
+    /*
+        A vector view reading directly from a memory segment (off-heap, or mapped from a file):
+            v_i = segment[offset + i * stride]
+        where offsets and strides count doubles, not bytes.
+
+        This is the ArraySlice of SegmentMatrix: random access and sub-viewing are direct reads,
+        and bulk copies of contiguous slices are a single copy of memory.
+     */
+
+    SegmentSlice {
+        assert length >= 0;
+        assert length == 0 || (offset + (length - 1) * stride + 1) * Double.BYTES <= segment.byteSize();
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        class Impl implements PrimitiveIterator.OfDouble {
+            int cursor = 0;
+
+            @Override
+            public double nextDouble() {
+                return MemoryAccess.getDoubleAtIndex(segment, offset + stride * cursor++);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return cursor < length;
+            }
+        }
+        return new Impl();
+    }
+
+    @Override
+    public double get(int index) {
+        return MemoryAccess.getDoubleAtIndex(segment, offset + index * stride);
+    }
+
+    @Override
+    public void copyInto(double[] dst, int dstOffset) {
+        if (stride == 1)
+            MemorySegment.ofArray(dst)
+                    .asSlice((long) dstOffset * Double.BYTES, (long) length * Double.BYTES)
+                    .copyFrom(segment.asSlice(offset * Double.BYTES, (long) length * Double.BYTES));
+        else for (int i = 0; i < length; i++) dst[dstOffset + i] = get(i);
+    }
+
+    @Override
+    public VectorView subView(int skip, int l) {
+        checkFromIndexSize(skip, l, length);
+        return new SegmentSlice(segment, offset + skip * stride, l, stride);
+    }
+
+    @Override
+    public double dot(double[] x) {
+        /*
+            The slice against an array of the same length. Products of a matrix by a vector read every entry once:
+            they are bound by the memory bandwidth, and a plain loop over the segment keeps up with it.
+         */
+        assert x.length == length;
+        double stack = 0D;
+        for (int i = 0; i < length; i++) stack += x[i] * get(i);
+        return stack;
+    }
+}
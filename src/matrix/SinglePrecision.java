@@ -0,0 +1,400 @@
+package matrix;
+
+import java.util.Arrays;
+
+import static java.lang.Math.*;
+
+class SinglePrecision {
+    /*
+        The eigenvalue iteration in single precision, and the refinement of its results in double precision.
+
+        Most of the work of the Francis iteration is spent in the sweeps, which read and write the whole window
+        of the Hessenberg matrix again and again. On floats, every sweep moves half the bytes,
+        and the SIMD kernels (see Kernels) process twice as many entries per instruction.
+        The price is accuracy: eigenvalues come with about seven significant digits
+        (relative to the norm of the matrix), instead of about sixteen.
+
+        The mixed mode gets both: the iteration runs on floats, and every eigenvalue s is then polished,
+        in double precision, by inverse iteration against the Hessenberg form H:
+                x = estimate of the eigenvector, from a factorization of H - s
+                s' = s + 1 / (x* (H - s)^-1 x)
+        that is, by the Rayleigh quotient of (H - s)^-1. H - s is factored once per eigenvalue:
+        starting from a single precision eigenvalue, the shift is so close that inverse iteration converges
+        by about seven digits per solve, and two solves are usually enough. Factorization and solves cost O(n^2),
+        thanks to the Hessenberg shape, in real arithmetic for real eigenvalues, and on the kernels (see Kernels).
+
+        Over all eigenvalues, the refinement still costs about as much as the whole float iteration:
+        the mixed mode is about accuracy from a float iteration, not about speed. Best of 12 runs
+        on a 400 x 400 gaussian matrix, on a single (noisy) core with AVX-512:
+            - DOUBLE: 200 to 260 ms, of which about 80 ms of reduction,
+            - SINGLE: 115 to 130 ms, for about seven significant digits,
+            - MIXED: 260 to 390 ms (about 80 ms of reduction, 85 to 120 ms of float iteration,
+              110 to 140 ms of refinement), as accurate as DOUBLE.
+        Refining every eigenvalue in complex arithmetic, with a fresh factorization per round and no kernels,
+        took 250 to 290 ms alone.
+
+        The sweeps below are those of FrancisQR, on floats and without accumulator.
+     */
+
+    private static final float ULP = ulp(1F);
+    private static final int REFINEMENT_ROUNDS = 3;
+
+    static void reduceToHessenberg(FloatMatrix work, float[] v, float[] w) {
+        /*
+            Same reduction as HessenbergReducer, with reflectors in the buffer v and w as scratch (both of length n).
+            The rows of the matrix are contiguous: the reflection of the rows, on the left,
+            is done by forming w = v^T B, then B := B - 2 v w^T, as axpy on whole rows.
+         */
+        int n = work.colSize();
+        float[] a = work.data();
+        var kernels = Kernels.current();
+        for (int k = 0; k < n - 2; k++) {
+            int m = n - k - 1, cols = n - k;
+            for (int i = 0; i < m; i++) v[i] = a[(k + 1 + i) * n + k];
+            if (!toReflector(v, m)) continue;
+            for (int j = 0; j < cols; j++) w[j] = 0F;
+            for (int i = 0; i < m; i++) kernels.axpy(v[i], a, (k + 1 + i) * n + k, w, 0, cols);
+            for (int i = 0; i < m; i++) kernels.axpy(-2 * v[i], w, 0, a, (k + 1 + i) * n + k, cols);
+            for (int i = 0; i < n; i++) {
+                int start = i * n + k + 1;
+                kernels.axpy(-2 * kernels.dot(v, 0, a, start, m), v, 0, a, start, m);
+            }
+            for (int i = k + 2; i < n; i++) a[i * n + k] = 0F;
+        }
+    }
+
+    private static boolean toReflector(float[] x, int length) {
+        /* As Householder.toReflector: false when x is zero, and there is nothing to cancel */
+        double squares = 0D;
+        for (int k = 0; k < length; k++) squares += (double) x[k] * x[k];
+        if (squares == 0D) return false;
+        double x0 = x[0], v0 = x0 + copySign(sqrt(squares), x0);
+        double invertNorm = 1D / sqrt(squares - x0 * x0 + v0 * v0);
+        x[0] = (float) v0;
+        for (int k = 0; k < length; k++) x[k] = (float) (x[k] * invertNorm);
+        return true;
+    }
+
+    static int iterate(FloatMatrix h, double[] real, double[] imaginary, int[] windows,
+                       int iterationBound, double sensitivity) {
+        /*
+            The Francis iteration on the Hessenberg matrix h, as EigenValueSolver.spectrumInPlace runs it,
+            with the eigenvalues (unsorted) written to real and imaginary.
+            Returns the number of iterations left, negative if the bound was exhausted.
+         */
+        int n = h.colSize(), top = 0;
+        if (n > 0) {
+            windows[top++] = 0;
+            windows[top++] = n - 1;
+        }
+        while (top > 0) {
+            int hi = windows[--top], lo = windows[--top];
+            for (int sinceDeflation = 0; ; ) {
+                if (lo == hi) {
+                    real[hi] = h.getEntry(hi, hi);
+                    imaginary[hi] = 0D;
+                    break;
+                } else if (lo == hi - 1) {
+                    FrancisQR.blockEigenvalues(h.getEntry(lo, lo), h.getEntry(lo, hi),
+                            h.getEntry(hi, lo), h.getEntry(hi, hi), lo, real, imaginary);
+                    break;
+                }
+                int l = deflationPoint(h, lo, hi, sensitivity);
+                if (l > lo) {
+                    windows[top++] = lo;
+                    windows[top++] = l - 1;
+                    windows[top++] = l;
+                    windows[top++] = hi;
+                    break;
+                } else if (iterationBound-- > 0) {
+                    sweep(h, lo, hi, ++sinceDeflation);
+                } else {
+                    for (int i = lo; i <= hi; i++) {
+                        real[i] = h.getEntry(i, i);
+                        imaginary[i] = 0D;
+                    }
+                    break;
+                }
+            }
+        }
+        return max(iterationBound, -1);
+    }
+
+    private static int deflationPoint(FloatMatrix h, int lo, int hi, double sensitivity) {
+        float[] a = h.data();
+        int n = h.rowSize();
+        for (int l = hi; l > lo; l--) {
+            float sub = abs(a[l * n + l - 1]);
+            float scale = abs(a[(l - 1) * n + l - 1]) + abs(a[l * n + l]);
+            if (sub < sensitivity || sub <= ULP * scale) {
+                a[l * n + l - 1] = 0F;
+                return l;
+            }
+        }
+        return lo;
+    }
+
+    private static void sweep(FloatMatrix h, int lo, int hi, int iteration) {
+        float[] a = h.data();
+        int n = h.rowSize();
+        float sum, product;
+        if (iteration % 10 == 0) {
+            float w = abs(a[hi * n + hi - 1]) + abs(a[(hi - 1) * n + hi - 2]);
+            sum = 1.5F * w;
+            product = w * w;
+        } else {
+            float p = a[(hi - 1) * n + hi - 1], q = a[hi * n + hi];
+            sum = p + q;
+            product = p * q - a[(hi - 1) * n + hi] * a[hi * n + hi - 1];
+        }
+
+        float h00 = a[lo * n + lo], h10 = a[(lo + 1) * n + lo];
+        float x = h00 * h00 + a[lo * n + lo + 1] * h10 - sum * h00 + product;
+        float y = h10 * (h00 + a[(lo + 1) * n + lo + 1] - sum);
+        float z = h10 * a[(lo + 2) * n + lo + 1];
+
+        for (int k = lo; k < hi - 1; k++) {
+            reflect(a, n, lo, hi, k, x, y, z, 3);
+            x = a[(k + 1) * n + k];
+            y = a[(k + 2) * n + k];
+            if (k < hi - 2) z = a[(k + 3) * n + k];
+        }
+        reflect(a, n, lo, hi, hi - 1, x, y, 0F, 2);
+    }
+
+    private static void reflect(float[] a, int n, int lo, int hi, int k, float x, float y, float z, int size) {
+        /* The reflector of size 3 (or 2, with z = 0) sending (x, y, z) onto a multiple of e_0, as H := P H P */
+        float norm = (float) sqrt((double) x * x + (double) y * y + (double) z * z);
+        if (norm == 0F) return;
+        float alpha = -copySign(norm, x);
+        float v0 = x - alpha;
+        float tau = 2F / (v0 * v0 + y * y + z * z);
+
+        for (int j = max(lo, k - 1); j <= hi; j++) {
+            float p = v0 * a[k * n + j] + y * a[(k + 1) * n + j];
+            if (size == 3) p += z * a[(k + 2) * n + j];
+            p *= tau;
+            a[k * n + j] -= p * v0;
+            a[(k + 1) * n + j] -= p * y;
+            if (size == 3) a[(k + 2) * n + j] -= p * z;
+        }
+        for (int i = lo; i <= min(k + 3, hi); i++) {
+            int row = i * n + k;
+            float p = v0 * a[row] + y * a[row + 1];
+            if (size == 3) p += z * a[row + 2];
+            p *= tau;
+            a[row] -= p * v0;
+            a[row + 1] -= p * y;
+            if (size == 3) a[row + 2] -= p * z;
+        }
+        if (k > lo) {
+            a[k * n + k - 1] = alpha;
+            a[(k + 1) * n + k - 1] = 0F;
+            if (size == 3) a[(k + 2) * n + k - 1] = 0F;
+        }
+    }
+
+    static void refine(DenseMatrix h, double[] real, double[] imaginary) {
+        /*
+            Polishes the n eigenvalues of the Hessenberg matrix h (n x n), in place.
+            Conjugate pairs are stored next to each other, the one with positive imaginary part first:
+            that one is refined, and its conjugate follows.
+
+            A refined value is only kept if it did not wander off the starting one by more than
+            the square root of the float precision (relative to the norm of h): the iteration would then
+            have converged to another eigenvalue, and the starting value is the better one.
+         */
+        int n = h.colSize();
+        double squares = 0D;
+        for (int i = 0; i < n; i++)
+            for (int j = max(0, i - 1); j < n; j++) squares += h.getEntry(i, j) * h.getEntry(i, j);
+        double norm = sqrt(squares);
+        double tolerance = sqrt(ULP) * max(norm, Double.MIN_NORMAL);
+
+        var rayleigh = new Rayleigh(h, norm);
+        for (int k = 0; k < n; k++) {
+            if (imaginary[k] < 0D) continue;
+            rayleigh.iterate(real[k], imaginary[k]);
+            if (hypot(rayleigh.re - real[k], rayleigh.im - imaginary[k]) > tolerance) continue;
+            real[k] = rayleigh.re;
+            if (imaginary[k] > 0D && k + 1 < n) {
+                imaginary[k] = abs(rayleigh.im);
+                real[k + 1] = real[k];
+                imaginary[k + 1] = -imaginary[k];
+            }
+        }
+    }
+
+    private static final class Rayleigh {
+        /*
+            Buffers of the refinement of an eigenvalue of a Hessenberg matrix.
+
+            H - s = P L U is factored once, by Gaussian elimination with partial pivoting.
+            Below the diagonal, the column j has a single non-zero entry (at row j+1):
+            the pivot is chosen among two rows, and every elimination touches a single row.
+            The multiplier takes the place of the entry it cancels. A zero pivot (s is an eigenvalue
+            to working precision) is replaced by a tiny one.
+
+            The first round starts from the solution of U x = (1, ..., 1), as LAPACK starts inverse iteration
+            (a fixed starting vector may happen to miss the eigenvector, as it does on companion matrices).
+            Every round then solves y = (H - s)^-1 x with the same factors, and estimates the eigenvalue
+                s + 1 / (x* y)
+            that is, the shift plus the inverse of the Rayleigh quotient of (H - s)^-1.
+            The next round starts from y, normalized.
+
+            The entries below the subdiagonal of H are never read, nor copied.
+            Real shifts run in real arithmetic only, on the buffers ar and xr. Complex ones split every complex
+            row operation into real ones, and need a second n x n buffer ai, allocated at the first complex shift:
+            the scratch is n^2 doubles for a real spectrum, 2 n^2 otherwise. Either way, eliminations and substitutions are axpy and dot products
+            on rows, on the kernels (see Kernels).
+         */
+        final DenseMatrix h;
+        final int n;
+        final double tiny, scale;
+        final double[] ar, xr, xi, ur, ui;
+        double[] ai;
+        final boolean[] swapped;
+        double re, im;
+
+        Rayleigh(DenseMatrix h, double norm) {
+            this.h = h;
+            this.n = h.colSize();
+            this.scale = max(norm, Double.MIN_NORMAL);
+            this.tiny = ulp(1D) * scale;
+            ar = new double[n * n];
+            xr = new double[n];
+            xi = new double[n];
+            ur = new double[n];
+            ui = new double[n];
+            swapped = new boolean[n];
+        }
+
+        void iterate(double re, double im) {
+            boolean complex = im != 0D;
+            factor(re, im, complex);
+            Arrays.fill(xr, 1D);
+            Arrays.fill(xi, 0D);
+            backSubstitute(complex);
+            this.re = re;
+            this.im = im;
+            for (int round = 0; round < REFINEMENT_ROUNDS; round++) {
+                normalize();
+                System.arraycopy(xr, 0, ur, 0, n);
+                System.arraycopy(xi, 0, ui, 0, n);
+                forwardSubstitute(complex);
+                backSubstitute(complex);
+                /* x now holds y, and u the unit estimate */
+                double dr = 0D, di = 0D;
+                for (int i = 0; i < n; i++) {
+                    dr += ur[i] * xr[i] + ui[i] * xi[i];
+                    di += ur[i] * xi[i] - ui[i] * xr[i];
+                }
+                double d = dr * dr + di * di;
+                double nextRe = re + dr / d, nextIm = im - di / d;
+                double change = hypot(nextRe - this.re, nextIm - this.im);
+                this.re = nextRe;
+                this.im = nextIm;
+                /* The error left is a tiny fraction of the last change: stop when that one is negligible */
+                if (change <= sqrt(ulp(1D)) * scale) return;
+            }
+        }
+
+        private void factor(double re, double im, boolean complex) {
+            var kernels = Kernels.current();
+            if (complex && ai == null) ai = new double[n * n];
+            for (int i = 0; i < n; i++) {
+                int from = max(i - 1, 0);
+                h.getRow(i).subView(from, n - from).copyInto(ar, i * n + from);
+                ar[i * n + i] -= re;
+                if (complex) {
+                    Arrays.fill(ai, i * n + from, (i + 1) * n, 0D);
+                    ai[i * n + i] -= im;
+                }
+            }
+            for (int j = 0; j < n - 1; j++) {
+                int p = j * n + j, q = (j + 1) * n + j, length = n - j;
+                swapped[j] = hypot(ar[q], complex ? ai[q] : 0D) > hypot(ar[p], complex ? ai[p] : 0D);
+                if (swapped[j]) {
+                    swap(ar, p, q, length);
+                    if (complex) swap(ai, p, q, length);
+                }
+                pivot(p, complex);
+                /* l = a(j+1, j) / a(j, j), then row j+1 -= l row j */
+                if (complex) {
+                    double dr = ar[p], di = ai[p], d = dr * dr + di * di;
+                    double lr = (ar[q] * dr + ai[q] * di) / d, li = (ai[q] * dr - ar[q] * di) / d;
+                    kernels.axpy(-lr, ar, p + 1, ar, q + 1, length - 1);
+                    kernels.axpy(li, ai, p + 1, ar, q + 1, length - 1);
+                    kernels.axpy(-lr, ai, p + 1, ai, q + 1, length - 1);
+                    kernels.axpy(-li, ar, p + 1, ai, q + 1, length - 1);
+                    ar[q] = lr;
+                    ai[q] = li;
+                } else {
+                    double l = ar[q] / ar[p];
+                    kernels.axpy(-l, ar, p + 1, ar, q + 1, length - 1);
+                    ar[q] = l;
+                }
+            }
+            if (n > 0) pivot(n * n - 1, complex);
+        }
+
+        private static void swap(double[] a, int p, int q, int length) {
+            for (int c = 0; c < length; c++) {
+                double t = a[p + c]; a[p + c] = a[q + c]; a[q + c] = t;
+            }
+        }
+
+        private void pivot(int p, boolean complex) {
+            if (hypot(ar[p], complex ? ai[p] : 0D) < tiny) {
+                ar[p] = tiny;
+                if (complex) ai[p] = 0D;
+            }
+        }
+
+        private void forwardSubstitute(boolean complex) {
+            /* x := L^-1 P^T x */
+            for (int j = 0; j < n - 1; j++) {
+                if (swapped[j]) {
+                    double t = xr[j]; xr[j] = xr[j + 1]; xr[j + 1] = t;
+                    t = xi[j]; xi[j] = xi[j + 1]; xi[j + 1] = t;
+                }
+                double lr = ar[(j + 1) * n + j];
+                if (complex) {
+                    double li = ai[(j + 1) * n + j];
+                    xr[j + 1] -= lr * xr[j] - li * xi[j];
+                    xi[j + 1] -= lr * xi[j] + li * xr[j];
+                } else {
+                    xr[j + 1] -= lr * xr[j];
+                }
+            }
+        }
+
+        private void backSubstitute(boolean complex) {
+            /* x := U^-1 x */
+            var kernels = Kernels.current();
+            for (int i = n - 1; i >= 0; i--) {
+                int p = i * n + i, length = n - i - 1;
+                double sr = xr[i] - kernels.dot(ar, p + 1, xr, i + 1, length);
+                if (complex) {
+                    sr += kernels.dot(ai, p + 1, xi, i + 1, length);
+                    double si = xi[i] - kernels.dot(ar, p + 1, xi, i + 1, length) - kernels.dot(ai, p + 1, xr, i + 1, length);
+                    double dr = ar[p], di = ai[p], d = dr * dr + di * di;
+                    xr[i] = (sr * dr + si * di) / d;
+                    xi[i] = (si * dr - sr * di) / d;
+                } else {
+                    xr[i] = sr / ar[p];
+                }
+            }
+        }
+
+        private void normalize() {
+            double squares = 0D;
+            for (int i = 0; i < n; i++) squares += xr[i] * xr[i] + xi[i] * xi[i];
+            double norm = sqrt(squares);
+            for (int i = 0; i < n; i++) {
+                xr[i] /= norm;
+                xi[i] /= norm;
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package matrix;
+
+import java.util.Arrays;
+
+record SparseMatrix(int colSize, int rowSize, int[] pointers, int[] indices, double[] values, DenseMatrix.Layout layout)
+        implements Matrix {
+    /*
+        A sparse matrix, in compressed sparse rows (CSR, layout ROW_MAJOR) or columns (CSC, layout COLUMN_MAJOR).
+
+        In CSR, the non-zero entries of the row i are
+            A(i, indices[k]) = values[k]        for pointers[i] <= k < pointers[i + 1]
+        with increasing column indices; CSC is the same, with the roles of rows and columns swapped.
+        Memory is O(nnz) instead of O(m n), and so are products by vectors.
+
+        Slices along the compressed direction (rows of CSR, columns of CSC) are SparseSlice views over the arrays.
+        Slices along the other direction are gathered by a binary search in every compressed slice:
+        when they are read a lot, compress the matrix the other way (see compress).
+        The transpose of a CSR matrix is the CSC matrix over the very same arrays.
+     */
+
+    SparseMatrix {
+        assert colSize >= 0 && rowSize >= 0;
+        assert pointers.length == (layout == DenseMatrix.Layout.ROW_MAJOR ? colSize : rowSize) + 1;
+        assert indices.length >= pointers[pointers.length - 1] && values.length >= pointers[pointers.length - 1];
+    }
+
+    static SparseMatrix ofTriplets(int colSize, int rowSize, int[] rows, int[] columns, double[] entries,
+                                   DenseMatrix.Layout layout) {
+        /*
+            Builds the matrix from its entries (rows[k], columns[k], entries[k]), in any order.
+            Duplicates are summed, and zeros are left out. A counting sort along the compressed direction,
+            then a sort of every slice: O(nnz log nnz) at worst.
+         */
+        assert rows.length == columns.length && rows.length == entries.length;
+        boolean byRows = layout == DenseMatrix.Layout.ROW_MAJOR;
+        int slices = byRows ? colSize : rowSize;
+        int[] major = byRows ? rows : columns, minor = byRows ? columns : rows;
+
+        int[] pointers = new int[slices + 1];
+        for (int s : major) pointers[s + 1]++;
+        for (int s = 0; s < slices; s++) pointers[s + 1] += pointers[s];
+        int[] next = Arrays.copyOf(pointers, slices);
+        long[] keys = new long[entries.length];
+        for (int k = 0; k < entries.length; k++) keys[next[major[k]]++] = ((long) minor[k] << 32) | k;
+
+        int[] indices = new int[entries.length];
+        double[] values = new double[entries.length];
+        int count = 0;
+        for (int s = 0; s < slices; s++) {
+            Arrays.sort(keys, pointers[s], pointers[s + 1]);
+            int start = count;
+            for (int k = pointers[s]; k < pointers[s + 1]; k++) {
+                int index = (int) (keys[k] >>> 32);
+                double value = entries[(int) keys[k]];
+                if (count > start && indices[count - 1] == index) values[count - 1] += value;
+                else {
+                    indices[count] = index;
+                    values[count++] = value;
+                }
+            }
+            int kept = start;
+            for (int k = start; k < count; k++)
+                if (values[k] != 0D) {
+                    indices[kept] = indices[k];
+                    values[kept++] = values[k];
+                }
+            count = kept;
+            pointers[s] = start;
+        }
+        pointers[slices] = count;
+        return new SparseMatrix(colSize, rowSize, pointers, Arrays.copyOf(indices, count),
+                Arrays.copyOf(values, count), layout);
+    }
+
+    static SparseMatrix copyOf(Matrix M, DenseMatrix.Layout layout) {
+        /* The non-zero entries of any matrix, read slice by slice along the compressed direction */
+        boolean byRows = layout == DenseMatrix.Layout.ROW_MAJOR;
+        int slices = byRows ? M.colSize() : M.rowSize();
+        double[] slice = new double[byRows ? M.rowSize() : M.colSize()];
+        int[] pointers = new int[slices + 1];
+        int[] indices = new int[16];
+        double[] values = new double[16];
+        int count = 0;
+        for (int s = 0; s < slices; s++) {
+            (byRows ? M.getRow(s) : M.getColumn(s)).copyInto(slice, 0);
+            for (int t = 0; t < slice.length; t++) {
+                if (slice[t] == 0D) continue;
+                if (count == indices.length) {
+                    indices = Arrays.copyOf(indices, 2 * count);
+                    values = Arrays.copyOf(values, 2 * count);
+                }
+                indices[count] = t;
+                values[count++] = slice[t];
+            }
+            pointers[s + 1] = count;
+        }
+        return new SparseMatrix(M.colSize(), M.rowSize(), pointers, Arrays.copyOf(indices, count),
+                Arrays.copyOf(values, count), layout);
+    }
+
+    int nonZeros() {
+        return pointers[pointers.length - 1];
+    }
+
+    private SparseSlice slice(int index) {
+        /* The compressed slice index: a row of CSR, a column of CSC */
+        int length = layout == DenseMatrix.Layout.ROW_MAJOR ? rowSize : colSize;
+        return new SparseSlice(length, indices, values, pointers[index], pointers[index + 1], 0);
+    }
+
+    private SparseSlice gather(int index) {
+        /* The other slice index, found by a binary search in every compressed slice */
+        int slices = pointers.length - 1;
+        int[] found = new int[slices];
+        double[] entries = new double[slices];
+        int count = 0;
+        for (int s = 0; s < slices; s++) {
+            int k = Arrays.binarySearch(indices, pointers[s], pointers[s + 1], index);
+            if (k >= 0) {
+                found[count] = s;
+                entries[count++] = values[k];
+            }
+        }
+        return new SparseSlice(slices, found, entries, 0, count, 0);
+    }
+
+    @Override
+    public SparseVectorView getRow(int index) {
+        return layout == DenseMatrix.Layout.ROW_MAJOR ? slice(index) : gather(index);
+    }
+
+    @Override
+    public SparseVectorView getColumn(int index) {
+        return layout == DenseMatrix.Layout.ROW_MAJOR ? gather(index) : slice(index);
+    }
+
+    @Override
+    public VectorView apply(VectorView vec) {
+        /*
+            A * v in O(nnz), computed at once:
+                CSR: every entry of the result is the dot product of a row against v,
+                CSC: every column of A, scaled by the matching entry of v, is added to the result.
+         */
+        var x = vec.toArray();
+        assert x.length == rowSize;
+        double[] y = new double[colSize];
+        if (layout == DenseMatrix.Layout.ROW_MAJOR) {
+            for (int i = 0; i < colSize; i++) y[i] = slice(i).dot(x);
+        } else {
+            for (int j = 0; j < rowSize; j++)
+                for (int k = pointers[j]; k < pointers[j + 1]; k++) y[indices[k]] += values[k] * x[j];
+        }
+        return ArraySlice.of(y);
+    }
+
+    SparseMatrix compress(DenseMatrix.Layout target) {
+        /* The same matrix, compressed along the given direction (a copy, in O(nnz + m + n)) */
+        if (target == layout) return this;
+        int slices = pointers.length - 1, others = target == DenseMatrix.Layout.ROW_MAJOR ? colSize : rowSize;
+        int[] otherPointers = new int[others + 1];
+        for (int k = 0; k < nonZeros(); k++) otherPointers[indices[k] + 1]++;
+        for (int t = 0; t < others; t++) otherPointers[t + 1] += otherPointers[t];
+        int[] next = Arrays.copyOf(otherPointers, others);
+        int[] otherIndices = new int[nonZeros()];
+        double[] otherValues = new double[nonZeros()];
+        for (int s = 0; s < slices; s++)
+            for (int k = pointers[s]; k < pointers[s + 1]; k++) {
+                int position = next[indices[k]]++;
+                otherIndices[position] = s;
+                otherValues[position] = values[k];
+            }
+        return new SparseMatrix(colSize, rowSize, otherPointers, otherIndices, otherValues, target);
+    }
+
+    @Override
+    public SparseMatrix transpose() {
+        return new SparseMatrix(rowSize, colSize, pointers, indices, values, layout.flip());
+    }
+}
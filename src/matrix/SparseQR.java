@@ -0,0 +1,155 @@
+package matrix;
+
+import java.util.Arrays;
+
+import static java.lang.Math.hypot;
+
+record SparseQR(SparseMatrix a, SparseMatrix r) {
+    /*
+        QR factorization of a sparse m x n matrix A (m >= n), row by row with Givens rotations (George and Heath).
+
+        R is built one row of A at a time. A new row a is merged into the upper triangle:
+            for the first non-zero entry a_j of a:
+                if R has no row j yet, a becomes the row j of R;
+                otherwise the rotation of the rows (R_j, a) cancelling a_j is applied, and a goes on.
+        A rotation only mixes two rows, so that the fill-in is confined to the union of their patterns,
+        instead of the whole trailing block that a Householder reflector touches.
+        Rows of A are merged by increasing first column, which keeps the patterns tight.
+
+        Q is not kept (it is usually much denser than A and R). Least squares problems are solved by
+        the corrected semi-normal equations, which only need A and R, since R^T R = A^T A:
+            R^T R x = A^T b,    then once more with the residual b - A x to correct x.
+
+        A must have full column rank, and the ordering of its columns is the caller's (no fill-reducing permutation).
+     */
+
+    static SparseQR of(SparseMatrix A) {
+        int n = A.rowSize();
+        assert A.colSize() >= n;
+        var rows = A.compress(DenseMatrix.Layout.ROW_MAJOR);
+        int[] pointers = rows.pointers(), indices = rows.indices();
+
+        /* Rows by increasing first column (a counting sort), empty rows last */
+        int[] starts = new int[n + 2];
+        for (int i = 0; i < rows.colSize(); i++) starts[first(pointers, indices, n, i) + 1]++;
+        for (int j = 0; j <= n; j++) starts[j + 1] += starts[j];
+        int[] order = new int[rows.colSize()];
+        for (int i = 0; i < rows.colSize(); i++) order[starts[first(pointers, indices, n, i)]++] = i;
+
+        var triangle = new Row[n];
+        for (int i : order) {
+            var row = new Row(
+                    Arrays.copyOfRange(indices, pointers[i], pointers[i + 1]),
+                    Arrays.copyOfRange(rows.values(), pointers[i], pointers[i + 1])
+            ).withoutZeros();
+            while (row.size() > 0) {
+                int j = row.indices[0];
+                if (triangle[j] == null) {
+                    triangle[j] = row;
+                    break;
+                }
+                var rotated = rotate(triangle[j], row);
+                triangle[j] = rotated[0];
+                row = rotated[1];
+            }
+        }
+
+        int[] rPointers = new int[n + 1];
+        for (int j = 0; j < n; j++) rPointers[j + 1] = rPointers[j] + (triangle[j] == null ? 0 : triangle[j].size());
+        int[] rIndices = new int[rPointers[n]];
+        double[] rValues = new double[rPointers[n]];
+        for (int j = 0; j < n; j++)
+            if (triangle[j] != null) {
+                System.arraycopy(triangle[j].indices, 0, rIndices, rPointers[j], triangle[j].size());
+                System.arraycopy(triangle[j].values, 0, rValues, rPointers[j], triangle[j].size());
+            }
+        return new SparseQR(A, new SparseMatrix(n, n, rPointers, rIndices, rValues, DenseMatrix.Layout.ROW_MAJOR));
+    }
+
+    private static int first(int[] pointers, int[] indices, int n, int row) {
+        return pointers[row] < pointers[row + 1] ? indices[pointers[row]] : n;
+    }
+
+    private record Row(int[] indices, double[] values) {
+        /* A row being merged: increasing indices, and the first one is the entry to cancel (or the diagonal) */
+
+        int size() {
+            return indices.length;
+        }
+
+        Row withoutZeros() {
+            int kept = 0;
+            for (double value : values) if (value != 0D) kept++;
+            if (kept == values.length) return this;
+            int[] i = new int[kept];
+            double[] v = new double[kept];
+            for (int k = 0, t = 0; k < values.length; k++)
+                if (values[k] != 0D) {
+                    i[t] = indices[k];
+                    v[t++] = values[k];
+                }
+            return new Row(i, v);
+        }
+    }
+
+    private static Row[] rotate(Row pivot, Row row) {
+        /*
+            The rotation G of the rows (pivot, row) such that G (p, a)^T = (rho, 0)^T on their first column,
+            applied on the union of their patterns. The first entry of the new row is dropped (it is zero),
+            as well as any entry that cancels.
+         */
+        double p = pivot.values[0], q = row.values[0];
+        double rho = hypot(p, q), c = p / rho, s = q / rho;
+        int size = pivot.size() + row.size();
+        int[] union = new int[size];
+        double[] top = new double[size], bottom = new double[size];
+        int count = 0;
+        for (int u = 0, v = 0; u < pivot.size() || v < row.size(); count++) {
+            int iu = u < pivot.size() ? pivot.indices[u] : Integer.MAX_VALUE;
+            int iv = v < row.size() ? row.indices[v] : Integer.MAX_VALUE;
+            double x = iu <= iv ? pivot.values[u] : 0D, y = iv <= iu ? row.values[v] : 0D;
+            union[count] = Math.min(iu, iv);
+            top[count] = c * x + s * y;
+            bottom[count] = c * y - s * x;
+            if (iu <= iv) u++;
+            if (iv <= iu) v++;
+        }
+        top[0] = rho;
+        return new Row[]{
+                new Row(Arrays.copyOf(union, count), Arrays.copyOf(top, count)),
+                new Row(Arrays.copyOfRange(union, 1, count), Arrays.copyOfRange(bottom, 1, count)).withoutZeros()
+        };
+    }
+
+    VectorView solve(VectorView b) {
+        /* The least squares solution of A x = b (the solution itself, when A is square and invertible) */
+        var rhs = b.toArray();
+        assert rhs.length == a.colSize();
+        double[] x = seminormal(a.transpose().apply(ArraySlice.of(rhs)).toArray());
+        double[] residual = rhs.clone();
+        double[] ax = a.apply(ArraySlice.of(x)).toArray();
+        for (int i = 0; i < residual.length; i++) residual[i] -= ax[i];
+        double[] correction = seminormal(a.transpose().apply(ArraySlice.of(residual)).toArray());
+        for (int j = 0; j < x.length; j++) x[j] += correction[j];
+        return ArraySlice.of(x);
+    }
+
+    private double[] seminormal(double[] c) {
+        /* (R^T R)^-1 c: a forward substitution with R^T, then a backward one with R, on the rows of R */
+        int n = r.rowSize();
+        int[] pointers = r.pointers(), indices = r.indices();
+        double[] values = r.values();
+        double[] z = c.clone();
+        for (int i = 0; i < n; i++) {
+            assert pointers[i] < pointers[i + 1] && indices[pointers[i]] == i : "R is singular";
+            z[i] /= values[pointers[i]];
+            for (int k = pointers[i] + 1; k < pointers[i + 1]; k++) z[indices[k]] -= values[k] * z[i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double s = z[i];
+            for (int k = pointers[i] + 1; k < pointers[i + 1]; k++) s -= values[k] * z[indices[k]];
+            z[i] = s / values[pointers[i]];
+        }
+        return z;
+    }
+}
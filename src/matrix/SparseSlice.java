@@ -0,0 +1,85 @@
+package matrix;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.checkIndex;
+
+record SparseSlice(int length, int[] indices, double[] values, int from, int to, int shift)
+        implements SparseVectorView {
+    /*
+        A sparse view over the compressed arrays of a SparseMatrix:
+        the non-zero entries are those in [from, to) of indices and values, with
+            v_(indices[k] - shift) = values[k]
+        Sub-views only narrow the range and move the shift: no array is copied.
+     */
+
+    SparseSlice {
+        assert length >= 0 && from <= to;
+    }
+
+    @Override
+    public int nonZeros() {
+        return to - from;
+    }
+
+    @Override
+    public int index(int k) {
+        return indices[from + k] - shift;
+    }
+
+    @Override
+    public double value(int k) {
+        return values[from + k];
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        /* The dense walk: zeros between the non-zero entries */
+        class Impl implements PrimitiveIterator.OfDouble {
+            int cursor = 0, next = from;
+
+            @Override
+            public double nextDouble() {
+                if (next < to && indices[next] - shift == cursor) {
+                    cursor++;
+                    return values[next++];
+                }
+                cursor++;
+                return 0D;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return cursor < length;
+            }
+        }
+        return new Impl();
+    }
+
+    @Override
+    public double get(int index) {
+        checkIndex(index, length);
+        int k = Arrays.binarySearch(indices, from, to, index + shift);
+        return k >= 0 ? values[k] : 0D;
+    }
+
+    @Override
+    public void copyInto(double[] dst, int offset) {
+        Arrays.fill(dst, offset, offset + length, 0D);
+        for (int k = from; k < to; k++) dst[offset + indices[k] - shift] = values[k];
+    }
+
+    @Override
+    public VectorView subView(int skip, int l) {
+        checkFromIndexSize(skip, l, length);
+        return new SparseSlice(l, indices, values, lowerBound(skip), lowerBound(skip + l), shift + skip);
+    }
+
+    private int lowerBound(int index) {
+        /* The first position of [from, to) holding an index at least index */
+        int k = Arrays.binarySearch(indices, from, to, index + shift);
+        return k >= 0 ? k : -k - 1;
+    }
+}
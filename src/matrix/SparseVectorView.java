@@ -0,0 +1,26 @@
+package matrix;
+
+interface SparseVectorView extends DotProductView {
+    /*
+        A vector view that knows where its non-zero entries are:
+            v = sum over k < nonZeros() of value(k) e_index(k)
+        with increasing indices.
+
+        Algorithms aware of sparsity walk the non-zero entries only. The dense iteration of VectorView
+        still works (zeros included), so that sparse views go wherever views do.
+     */
+
+    int nonZeros();
+
+    int index(int k);
+
+    double value(int k);
+
+    @Override
+    default double dot(double[] x) {
+        /* v . x, in O(nonZeros) */
+        double stack = 0D;
+        for (int k = 0; k < nonZeros(); k++) stack += value(k) * x[index(k)];
+        return stack;
+    }
+}
@@ -0,0 +1,90 @@
+package matrix;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.hypot;
+
+record Spectrum(double[] real, double[] imaginary, int iterationsLeft) {
+    /*
+        Eigenvalues of a real matrix, as pairs (real part, imaginary part).
+
+        Complex eigenvalues of a real matrix come in conjugate pairs:
+        they are stored next to each other, the one with positive imaginary part first.
+     */
+
+    Spectrum {
+        assert real.length == imaginary.length;
+    }
+
+    int size() {
+        return real.length;
+    }
+
+    boolean isReal() {
+        return Arrays.stream(imaginary).allMatch(im -> im == 0D);
+    }
+
+    double modulus(int index) {
+        return hypot(real[index], imaginary[index]);
+    }
+
+    Spectrum sorted() {
+        return permuted(order());
+    }
+
+    int[] order() {
+        /*
+            The order of decreasing modulus, as flushEigenvalues sorts eigenvalues.
+            Conjugate pairs share their modulus, and so may several pairs (1 +- 2i and 2 +- i):
+            ties are broken by decreasing real part, then decreasing |imaginary part|,
+            so that every pair stays together, and then the positive imaginary part comes first.
+         */
+        return IntStream.range(0, size()).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(this::modulus)
+                        .thenComparingDouble(i -> real[i])
+                        .thenComparingDouble(i -> abs(imaginary[i]))
+                        .thenComparingDouble(i -> imaginary[i])
+                        .reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    static void sortInPlace(double[] real, double[] imaginary, int n) {
+        /*
+            Sorts the n first pairs (real, imaginary) in the very same order as order() does, without allocating.
+            Insertion sort is stable, as the sort of order() is, and cheap for the sizes at hand.
+         */
+        for (int i = 1; i < n; i++) {
+            double re = real[i], im = imaginary[i];
+            int j = i;
+            for (; j > 0; j--) {
+                if (compare(re, im, real[j - 1], imaginary[j - 1]) <= 0) break;
+                real[j] = real[j - 1];
+                imaginary[j] = imaginary[j - 1];
+            }
+            real[j] = re;
+            imaginary[j] = im;
+        }
+    }
+
+    private static int compare(double re, double im, double otherRe, double otherIm) {
+        /* The keys of order(), compared one after the other: modulus, real part, |imaginary part|, imaginary part */
+        int c = Double.compare(hypot(re, im), hypot(otherRe, otherIm));
+        if (c == 0) c = Double.compare(re, otherRe);
+        if (c == 0) c = Double.compare(abs(im), abs(otherIm));
+        return c == 0 ? Double.compare(im, otherIm) : c;
+    }
+
+    Spectrum permuted(int[] order) {
+        /* The eigenvalue at index i of the result is the one at index order[i] */
+        double[] re = new double[size()], im = new double[size()];
+        for (int i = 0; i < order.length; i++) {
+            re[i] = real[order[i]];
+            im[i] = imaginary[order[i]];
+        }
+        return new Spectrum(re, im, iterationsLeft);
+    }
+}
@@ -0,0 +1,23 @@
+package matrix;
+
+interface StructuredMatrix extends Matrix {
+    /*
+        A matrix known by its algebraic structure (identity, diagonal, permutation, embedding, low-rank update)
+        rather than by its entries.
+
+        Such matrices store O(n) numbers at most, and apply to a vector in O(n).
+        Products with other matrices stay lazy, as every product does: the rows and columns of most structures
+        are unit slices, so that the rows of S * B and the columns of A * S are picked from the other factor
+        rather than multiplied (see ProductOfTwo). Two structures of the same kind compose at once into a structure,
+        in O(n). When a product is materialized, the ExpressionOptimizer evaluates the structured factors by
+        the shortcuts below, in O(n^2) instead of O(n^3):
+            composeLeftInto(B, target)      target := S * B
+            composeRightInto(A, target)     target := A * S
+        where target is a zero buffer of the right shape.
+        Triangular matrices are band matrices (see BandMatrix), whose products only visit the band.
+     */
+
+    void composeLeftInto(DenseMatrix rightFactor, DenseMatrix target);
+
+    void composeRightInto(DenseMatrix leftFactor, DenseMatrix target);
+}
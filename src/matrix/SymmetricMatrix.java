@@ -35,4 +35,35 @@ interface SymmetricMatrix extends Matrix {
     default Matrix transpose() {
         return this;
     }
+
+    static SymmetricMatrix ofTable(double[][] data) {
+        assert data.length == data[0].length : "The data table is not square";
+        class Impl implements CoordinatesBased, SymmetricMatrix {
+            @Override
+            public double getEntry(int rowIndex, int colIndex) {
+                return data[rowIndex][colIndex];
+            }
+
+            @Override
+            public int rowSize() {
+                return data.length;
+            }
+
+            @Override
+            public int colSize() {
+                return data.length;
+            }
+
+            @Override
+            public VectorView getColumn(int index) {
+                return CoordinatesBased.super.getColumn(index);
+            }
+
+            @Override
+            public VectorView getRow(int index) {
+                return CoordinatesBased.super.getRow(index);
+            }
+        }
+        return new Impl();
+    }
 }
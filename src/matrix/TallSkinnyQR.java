@@ -0,0 +1,117 @@
+package matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+class TallSkinnyQR {
+    /*
+        QR of a tall and skinny m x n matrix (m >> n), after Demmel, Grigori, Hoemmen and Langou (TSQR).
+
+        The rows are cut into blocks A_0, ..., A_k, which are factored independently (A_i = Q_i R_i),
+        each by the Householder QR of CompactQR, on its own task. The small n x n factors are then combined
+        pairwise along a binary reduction tree:
+            [ R_i ; R_j ] = Q_ij R_ij
+        until a single R is left. It is the R factor of A (up to the signs of its rows, which are made
+        non-negative on the diagonal), and the Q factor is never formed.
+
+        The leaves read every entry of A once, and account for almost all the work, in O(m n^2):
+        they scale with the cores until the memory bandwidth is exhausted. The tree itself only
+        handles O(k) matrices of 2n x n, in O(log k) steps. Blocks are of a few thousand rows at most,
+        so that a leaf works in cache, and there are at least as many blocks as tasks.
+
+        Least squares problems are solved by the same tree, on A augmented by the right-hand side b:
+            [ A b ] = Q [ R z ; 0 rho ]      then      x = R^-1 z,     |A x - b| = |rho|
+     */
+
+    static final int LEAF_ROWS = 1 << 12;
+
+    static DenseMatrix r(Matrix A, ParallelKernels kernels) {
+        return r(A, null, kernels, LEAF_ROWS);
+    }
+
+    static VectorView leastSquares(Matrix A, VectorView b, ParallelKernels kernels) {
+        /* The least squares solution of A x = b (A of full column rank) */
+        int n = A.rowSize();
+        var augmented = r(A, b.toArray(), kernels, LEAF_ROWS);
+        assert augmented.colSize() >= n : "Fewer rows than columns";
+        /* The last column of the augmented R is Q^T b: R x = Q^T b on its n first rows */
+        double[] x = augmented.getColumn(n).subView(0, n).toArray();
+        Triangular.backSubstitute(augmented, n - 1, x, 0, n);
+        return ArraySlice.of(x);
+    }
+
+    static DenseMatrix r(Matrix A, double[] b, ParallelKernels kernels, int leafRows) {
+        /*
+            The R factor of A (of [ A b ] when b is given), with blocks of leafRows rows at most.
+            It is p x n', where n' is the number of columns and p = min(m, n').
+         */
+        int m = A.colSize(), n = A.rowSize() + (b == null ? 0 : 1);
+        assert b == null || b.length == m;
+        int rows = max(max(n, 1), min(leafRows, (m + kernels.tasks() - 1) / kernels.tasks()));
+        var level = new ArrayList<CompletableFuture<DenseMatrix>>();
+        for (int from = 0; ; from += rows) {
+            int start = from, end = min(m, from + rows);
+            level.add(CompletableFuture.supplyAsync(() -> leaf(A, b, start, end), kernels.executor()));
+            if (end == m) break;
+        }
+        while (level.size() > 1) {
+            var next = new ArrayList<CompletableFuture<DenseMatrix>>((level.size() + 1) / 2);
+            for (int k = 0; k + 1 < level.size(); k += 2)
+                next.add(level.get(k).thenCombineAsync(level.get(k + 1), TallSkinnyQR::stack, kernels.executor()));
+            if (level.size() % 2 == 1) next.add(level.get(level.size() - 1));
+            level = next;
+        }
+        var r = join(level);
+        for (int i = 0; i < r.colSize(); i++)
+            if (r.getEntry(i, i) < 0D)
+                for (int j = i; j < n; j++) r.setEntry(i, j, -r.getEntry(i, j));
+        return r;
+    }
+
+    private static DenseMatrix leaf(Matrix A, double[] b, int from, int to) {
+        /* The rows [from, to) of A (and of b), copied into a column-major block, and factored */
+        int n = A.rowSize(), columns = n + (b == null ? 0 : 1);
+        var block = DenseMatrix.zeros(to - from, columns, DenseMatrix.Layout.COLUMN_MAJOR);
+        double[] row = new double[n];
+        for (int i = from; i < to; i++) {
+            A.getRow(i).copyInto(row, 0);
+            for (int j = 0; j < n; j++) block.setEntry(i - from, j, row[j]);
+            if (b != null) block.setEntry(i - from, n, b[i]);
+        }
+        return upper(CompactQR.inPlace(block));
+    }
+
+    private static DenseMatrix stack(DenseMatrix top, DenseMatrix bottom) {
+        /* The R factor of [ top ; bottom ] */
+        int n = top.rowSize();
+        var block = DenseMatrix.zeros(top.colSize() + bottom.colSize(), n, DenseMatrix.Layout.COLUMN_MAJOR);
+        block.subMatrix(0, 0, top.colSize(), n).assign(top);
+        block.subMatrix(top.colSize(), 0, bottom.colSize(), n).assign(bottom);
+        return upper(CompactQR.inPlace(block));
+    }
+
+    private static DenseMatrix upper(CompactQR qr) {
+        /* The p x n factor R, in a column-major buffer of its own (the factors of a block are dropped) */
+        var factors = qr.factors();
+        int p = qr.reflectorCount(), n = factors.rowSize();
+        var r = DenseMatrix.zeros(p, n, DenseMatrix.Layout.COLUMN_MAJOR);
+        for (int j = 0; j < n; j++)
+            for (int i = 0; i <= min(j, p - 1); i++) r.setEntry(i, j, factors.getEntry(i, j));
+        return r;
+    }
+
+    private static DenseMatrix join(List<CompletableFuture<DenseMatrix>> level) {
+        try {
+            return level.get(0).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package matrix;
+
+interface Transposed extends Matrix {
+    /*
+        A lazy transpose, which only swaps the roles of rows and columns of the original matrix.
+        Knowing the original lets the expression optimizer push the transpose down to the storage layout.
+     */
+
+    Matrix original();
+}
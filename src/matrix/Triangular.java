@@ -0,0 +1,52 @@
+package matrix;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+class Triangular {
+    /*
+        Solves of triangular systems, shared by the QR factorizations (compact, Givens, band, TSQR):
+        they all end with R x = y, where R is upper triangular.
+     */
+
+    static void backSubstitute(CoordinatesBased r, int bandwidth, double[] x, int offset, int n) {
+        /*
+            x[offset .. offset + n) := R^-1 x[offset .. offset + n), where R is the leading n x n upper triangle of r,
+            whose entries are known to be zero more than bandwidth columns to the right of the diagonal
+            (n - 1, or more, for a full triangle). Entries below the diagonal, or beyond the band, are never read.
+
+            Dense factors go through the kernels:
+                - column-major ones by columns: once x_i is known, the column i of R above the diagonal,
+                  scaled by x_i, is removed from the entries above it, as an axpy;
+                - row-major ones by rows: x_i is what is left of y_i once the row i of R, right of the diagonal,
+                  is dotted against the known entries of x.
+            Others read their entries one by one, by columns, in O(n bandwidth).
+         */
+        var kernels = Kernels.current();
+        if (r instanceof DenseMatrix dense && dense.layout() == DenseMatrix.Layout.ROW_MAJOR) {
+            for (int i = n - 1; i >= 0; i--) {
+                int length = min(n - 1, i + bandwidth) - i;
+                double s = x[offset + i] - kernels.dot(dense.data(), dense.indexOf(i, i + 1), x, offset + i + 1, length);
+                x[offset + i] = s / diagonal(r, i);
+            }
+            return;
+        }
+        boolean contiguous = r instanceof DenseMatrix dense && dense.layout() == DenseMatrix.Layout.COLUMN_MAJOR;
+        for (int i = n - 1; i >= 0; i--) {
+            double xi = x[offset + i] / diagonal(r, i);
+            x[offset + i] = xi;
+            if (xi == 0D) continue;
+            int top = max(i - bandwidth, 0);
+            if (contiguous) {
+                var dense = (DenseMatrix) r;
+                kernels.axpy(-xi, dense.data(), dense.indexOf(top, i), x, offset + top, i - top);
+            } else for (int k = top; k < i; k++) x[offset + k] -= xi * r.getEntry(k, i);
+        }
+    }
+
+    private static double diagonal(CoordinatesBased r, int i) {
+        double diagonal = r.getEntry(i, i);
+        assert diagonal != 0D : "R is singular";
+        return diagonal;
+    }
+}
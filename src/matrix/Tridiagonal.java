@@ -0,0 +1,151 @@
+package matrix;
+
+import static java.lang.Math.*;
+
+record Tridiagonal(double[] diagonal, double[] offDiagonal) {
+    /*
+        A symmetric tridiagonal matrix, stored as two arrays:
+            T_{ii} = diagonal[i]
+            T_{(i+1)i} = T_{i(i+1)} = offDiagonal[i]
+        The off-diagonal array has the same length as the diagonal, its last entry being zero.
+
+        Any symmetric matrix is orthogonally similar to a tridiagonal one,
+        and the QL iteration on such a matrix only costs O(n) per sweep.
+     */
+
+    private static final double ULP = ulp(1D);
+
+    Tridiagonal {
+        assert diagonal.length == offDiagonal.length;
+    }
+
+    static Tridiagonal of(Matrix M) {
+        return reduce(DenseMatrix.copyOf(M));
+    }
+
+    static Tridiagonal reduce(DenseMatrix a) {
+        return reduce(a, null);
+    }
+
+    static Tridiagonal reduce(DenseMatrix a, DenseMatrix accumulator) {
+        /*
+            Householder reduction of a symmetric matrix, overwriting a.
+            If an accumulator Z is given, every reflector is applied on its right (Z := Z H),
+            so that starting from the identity, A = Z T Z^T at the end.
+
+            For the reflector H = Id - 2 v v^T cancelling the column k below its subdiagonal,
+                H A H = A - v w^T - w v^T
+            with
+                p = A v,    w = 2 (p - (v^T p) v)
+            so that one step is a symmetric rank-two update of the trailing block,
+            and the whole reduction costs O(n^3) with a small constant.
+         */
+        assert a.colSize() == a.rowSize();
+        int n = a.colSize();
+        double[] d = new double[n], e = new double[n];
+        reduce(a, d, e, new double[n], new double[n], accumulator);
+        return new Tridiagonal(d, e);
+    }
+
+    static void reduce(DenseMatrix a, double[] d, double[] e, double[] v, double[] p, DenseMatrix accumulator) {
+        /*
+            Same reduction into caller buffers (of length at least n): nothing is allocated.
+            The reflector of every step lives in v, and p is scratch.
+         */
+        int n = a.colSize();
+        for (int k = 0; k < n - 2; k++) {
+            int m = n - k - 1;
+            for (int i = 0; i < m; i++) v[i] = a.getEntry(k + 1 + i, k);
+            double x0 = v[0];
+            /* the column k (and row k) collapses onto its subdiagonal entry: H x = -sign(x_0) |x| e_0 */
+            e[k] = -copySign(Householder.toReflector(v, m), x0);
+
+            double vp = 0D;
+            for (int i = 0; i < m; i++) {
+                double s = 0D;
+                for (int j = 0; j < m; j++) s += a.getEntry(k + 1 + i, k + 1 + j) * v[j];
+                p[i] = s;
+                vp += v[i] * s;
+            }
+            for (int i = 0; i < m; i++) p[i] = 2 * (p[i] - vp * v[i]);
+            for (int i = 0; i < m; i++)
+                for (int j = 0; j < m; j++)
+                    a.addToEntry(k + 1 + i, k + 1 + j, -v[i] * p[j] - p[i] * v[j]);
+            if (accumulator != null) Householder.applyRight(v, m, accumulator);
+            d[k] = a.getEntry(k, k);
+        }
+        for (int k = max(n - 2, 0); k < n; k++) d[k] = a.getEntry(k, k);
+        if (n >= 2) e[n - 2] = a.getEntry(n - 1, n - 2);
+        if (n >= 1) e[n - 1] = 0D;
+    }
+
+    int diagonalize(int iterationBound, double sensitivity) {
+        return diagonalize(iterationBound, sensitivity, null);
+    }
+
+    int diagonalize(int iterationBound, double sensitivity, DenseMatrix accumulator) {
+        return diagonalize(diagonal, offDiagonal, diagonal.length, iterationBound, sensitivity, accumulator);
+    }
+
+    static int diagonalize(double[] d, double[] e, int n,
+                           int iterationBound, double sensitivity, DenseMatrix accumulator) {
+        /*
+            Implicit QL iteration with Wilkinson's shift, in place.
+
+            For every l, while the off-diagonal entry e_l is not negligible:
+                - find the first m >= l with e_m negligible: [l, m] is an unreduced block,
+                - take as shift the eigenvalue of the leading 2x2 block closest to d_l,
+                - chase the shift from m up to l with plane rotations, which costs O(m - l).
+            Converged eigenvalues end up on the diagonal; the off-diagonal is zeroed.
+            If an accumulator is given, the rotations are accumulated on its right: starting from the
+            transform of the reduction, its columns end up being the eigenvectors.
+
+            Returns the number of sweeps left, negative if the bound was exhausted.
+         */
+        for (int l = 0; l < n; l++) {
+            while (true) {
+                int m = l;
+                for (; m < n - 1; m++) {
+                    double scale = abs(d[m]) + abs(d[m + 1]);
+                    if (abs(e[m]) < sensitivity || abs(e[m]) <= ULP * scale) break;
+                }
+                if (m == l) break;
+                if (iterationBound-- <= 0) return -1;
+
+                double g = (d[l + 1] - d[l]) / (2 * e[l]);
+                double r = hypot(g, 1D);
+                g = d[m] - d[l] + e[l] / (g + copySign(r, g));
+                double s = 1D, c = 1D, p = 0D;
+                int i = m - 1;
+                for (; i >= l; i--) {
+                    double f = s * e[i], b = c * e[i];
+                    r = hypot(f, g);
+                    e[i + 1] = r;
+                    if (r == 0D) { // underflow: the block splits at i+1
+                        d[i + 1] -= p;
+                        e[m] = 0D;
+                        break;
+                    }
+                    s = f / r;
+                    c = g / r;
+                    g = d[i + 1] - p;
+                    r = (d[i] - g) * s + 2 * c * b;
+                    p = s * r;
+                    d[i + 1] = g + p;
+                    g = c * r - b;
+                    if (accumulator != null)
+                        for (int k = 0; k < accumulator.colSize(); k++) {
+                            double u = accumulator.getEntry(k, i), w = accumulator.getEntry(k, i + 1);
+                            accumulator.setEntry(k, i + 1, s * u + c * w);
+                            accumulator.setEntry(k, i, c * u - s * w);
+                        }
+                }
+                if (r == 0D && i >= l) continue;
+                d[l] -= p;
+                e[l] = g;
+                e[m] = 0D;
+            }
+        }
+        return iterationBound;
+    }
+}
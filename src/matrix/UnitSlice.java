@@ -0,0 +1,73 @@
+package matrix;
+
+import java.util.PrimitiveIterator;
+
+import static java.util.Objects.checkFromIndexSize;
+import static java.util.Objects.checkIndex;
+
+record UnitSlice(int length, int position, double value) implements SparseVectorView {
+    /*
+        The vector value * e_position, of the given length: the rows and columns of identity,
+        diagonal and permutation matrices. Nothing is stored but the position of the only non-zero entry,
+        which may lie outside of [0, length): the vector is then zero (sub-views may miss the entry).
+     */
+
+    UnitSlice {
+        assert length >= 0;
+    }
+
+    private boolean hit() {
+        return position >= 0 && position < length;
+    }
+
+    @Override
+    public int nonZeros() {
+        return hit() ? 1 : 0;
+    }
+
+    @Override
+    public int index(int k) {
+        return position;
+    }
+
+    @Override
+    public double value(int k) {
+        return value;
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        class Impl implements PrimitiveIterator.OfDouble {
+            int cursor = 0;
+
+            @Override
+            public double nextDouble() {
+                return cursor++ == position ? value : 0D;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return cursor < length;
+            }
+        }
+        return new Impl();
+    }
+
+    @Override
+    public double get(int index) {
+        checkIndex(index, length);
+        return index == position ? value : 0D;
+    }
+
+    @Override
+    public void copyInto(double[] dst, int offset) {
+        for (int i = 0; i < length; i++) dst[offset + i] = 0D;
+        if (hit()) dst[offset + position] = value;
+    }
+
+    @Override
+    public VectorView subView(int skip, int l) {
+        checkFromIndexSize(skip, l, length);
+        return new UnitSlice(l, position - skip, value);
+    }
+}
@@ -0,0 +1,116 @@
+package matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorKernels extends Kernels {
+    /*
+        Kernels on the Vector API (jdk.incubator.vector).
+
+        Everything runs on the preferred species of the host (2 doubles with SSE or NEON, 4 with AVX2,
+        8 with AVX-512, and twice as many floats): dot products and axpy,
+        with a scalar loop for the tail. Dot products keep one accumulator lane per position,
+        reduced at the end: the sum is not done in the order of the scalar loop.
+
+        The register block of the multiplication is R x L with R = 4 and L the number of lanes,
+        that is: one vector per row of C.
+        Every step of the depth broadcasts an entry of the A sliver and multiplies it
+        by the L contiguous entries of the B sliver, with a fused multiply-add.
+
+        On hosts whose preferred species holds a single double, lanes would only be emulated:
+        the constructor refuses them, and the scalar kernels are used instead (see Kernels).
+     */
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+    VectorKernels() {
+        if (SPECIES.length() < 2)
+            throw new UnsupportedOperationException("No SIMD register of two doubles on this host");
+    }
+
+    @Override
+    int blockColumns() {
+        return SPECIES.length();
+    }
+
+    @Override
+    double dot(double[] x, int xFrom, double[] y, int yFrom, int length) {
+        var sum = DoubleVector.zero(SPECIES);
+        int k = 0;
+        for (int bound = SPECIES.loopBound(length); k < bound; k += SPECIES.length())
+            sum = DoubleVector.fromArray(SPECIES, x, xFrom + k)
+                    .fma(DoubleVector.fromArray(SPECIES, y, yFrom + k), sum);
+        double s = sum.reduceLanes(VectorOperators.ADD);
+        for (; k < length; k++) s += x[xFrom + k] * y[yFrom + k];
+        return s;
+    }
+
+    @Override
+    void axpy(double alpha, double[] x, int xFrom, double[] y, int yFrom, int length) {
+        var scale = DoubleVector.broadcast(SPECIES, alpha);
+        int k = 0;
+        for (int bound = SPECIES.loopBound(length); k < bound; k += SPECIES.length())
+            DoubleVector.fromArray(SPECIES, x, xFrom + k)
+                    .fma(scale, DoubleVector.fromArray(SPECIES, y, yFrom + k))
+                    .intoArray(y, yFrom + k);
+        for (; k < length; k++) y[yFrom + k] += alpha * x[xFrom + k];
+    }
+
+    @Override
+    float dot(float[] x, int xFrom, float[] y, int yFrom, int length) {
+        var sum = FloatVector.zero(FLOATS);
+        int k = 0;
+        for (int bound = FLOATS.loopBound(length); k < bound; k += FLOATS.length())
+            sum = FloatVector.fromArray(FLOATS, x, xFrom + k)
+                    .fma(FloatVector.fromArray(FLOATS, y, yFrom + k), sum);
+        float s = sum.reduceLanes(VectorOperators.ADD);
+        for (; k < length; k++) s += x[xFrom + k] * y[yFrom + k];
+        return s;
+    }
+
+    @Override
+    void axpy(float alpha, float[] x, int xFrom, float[] y, int yFrom, int length) {
+        var scale = FloatVector.broadcast(FLOATS, alpha);
+        int k = 0;
+        for (int bound = FLOATS.loopBound(length); k < bound; k += FLOATS.length())
+            FloatVector.fromArray(FLOATS, x, xFrom + k)
+                    .fma(scale, FloatVector.fromArray(FLOATS, y, yFrom + k))
+                    .intoArray(y, yFrom + k);
+        for (; k < length; k++) y[yFrom + k] += alpha * x[xFrom + k];
+    }
+
+    @Override
+    void microKernel(double[] a, int aFrom, double[] b, int bFrom, int kc,
+                     DenseMatrix c, int i, int j, int rows, int cols) {
+        int lanes = SPECIES.length();
+        var c0 = DoubleVector.zero(SPECIES);
+        var c1 = DoubleVector.zero(SPECIES);
+        var c2 = DoubleVector.zero(SPECIES);
+        var c3 = DoubleVector.zero(SPECIES);
+        for (int p = 0, x = aFrom, y = bFrom; p < kc; p++, x += Gemm.R, y += lanes) {
+            var row = DoubleVector.fromArray(SPECIES, b, y);
+            c0 = row.fma(DoubleVector.broadcast(SPECIES, a[x]), c0);
+            c1 = row.fma(DoubleVector.broadcast(SPECIES, a[x + 1]), c1);
+            c2 = row.fma(DoubleVector.broadcast(SPECIES, a[x + 2]), c2);
+            c3 = row.fma(DoubleVector.broadcast(SPECIES, a[x + 3]), c3);
+        }
+        store(c, i, j, rows, cols, 0, c0);
+        store(c, i, j, rows, cols, 1, c1);
+        store(c, i, j, rows, cols, 2, c2);
+        store(c, i, j, rows, cols, 3, c3);
+    }
+
+    private static void store(DenseMatrix c, int i, int j, int rows, int cols, int r, DoubleVector block) {
+        /* Adds the row r of a register block to C: a single vector add when the row is contiguous in C */
+        if (r >= rows) return;
+        if (cols == SPECIES.length() && c.layout() == DenseMatrix.Layout.ROW_MAJOR) {
+            int index = c.indexOf(i + r, j);
+            DoubleVector.fromArray(SPECIES, c.data(), index).add(block).intoArray(c.data(), index);
+        } else {
+            for (int s = 0; s < cols; s++) c.addToEntry(i + r, j + s, block.lane(s));
+        }
+    }
+}
@@ -2,18 +2,44 @@ package matrix;
 
 import java.util.NoSuchElementException;
 import java.util.PrimitiveIterator;
-import java.util.stream.StreamSupport;
 
 @FunctionalInterface
 public interface VectorView  {
 
     PrimitiveIterator.OfDouble iterator();
 
+    default int length() {
+        /*
+            Without further knowledge on the view, the length is found by walking through it.
+            Views that know their length (slices, concatenations, ...) override this as a O(1) operation.
+         */
+        int length = 0;
+        for(var it = iterator(); it.hasNext(); it.nextDouble()) length++;
+        return length;
+    }
+
+    default double get(int index) {
+        /*
+            Random access, in its default form, is a O(index) operation.
+         */
+        var it = iterator();
+        for(int i = 0; i < index; i++) it.nextDouble();
+        return it.nextDouble();
+    }
+
+    default void copyInto(double[] dst, int offset) {
+        /*
+            Bulk copy of the view into a primitive array, starting at the given offset.
+            No boxing occurs on the way.
+         */
+        var it = iterator();
+        for(int i = offset; it.hasNext(); i++) dst[i] = it.nextDouble();
+    }
+
     default double[] toArray() {
-        Iterable<Double> self = this::iterator; // Java wants the cast
-        return StreamSupport.stream(self.spliterator(), false)
-                .mapToDouble(Double::valueOf)
-                .toArray();
+        double[] data = new double[length()];
+        copyInto(data, 0);
+        return data;
     }
 
     default VectorView then(VectorView next) {
@@ -23,39 +49,75 @@ public interface VectorView  {
 
             This operator is useful for aggregating subcolumns during an algorithmic computation
 
-            Since VectorView do not know about their length,
-            it would be too hard to implement a custom sub-view operation for results of then.
-            We thus do not override that operator.
+            Since both parts know about their length, the concatenation does too.
+            Random access and sub-viewing dispatch to the part that holds the coordinates,
+            and are as cheap as they are on the parts.
          */
-        return () -> {
-            class Impl implements PrimitiveIterator.OfDouble {
-                boolean switchOn = true;
-                OfDouble itCursor = VectorView.this.iterator();
-                @Override
-                public double nextDouble() {
-                    if(hasNext())
-                        return itCursor.nextDouble();
-                    else throw new NoSuchElementException();
-                }
+        record Concatenation(VectorView head, VectorView tail) implements VectorView {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                class Impl implements PrimitiveIterator.OfDouble {
+                    boolean switchOn = true;
+                    OfDouble itCursor = head.iterator();
+                    @Override
+                    public double nextDouble() {
+                        if(hasNext())
+                            return itCursor.nextDouble();
+                        else throw new NoSuchElementException();
+                    }
+
+                    /**
+                     * Watch out, hasNext here has a side-effect
+                     * on the object, which makes it tricky. The hasNext() method must be called
+                     * somehow on the nextDouble() implementation, to guarantee coherence.
+                     */
+                    @Override
+                    public boolean hasNext() {
+                        if(switchOn) {
+                            boolean hasNext = itCursor.hasNext();
+                            if(! hasNext) {
+                                switchOn = false;
+                                itCursor = tail.iterator();
+                                return hasNext();
+                            } return true;
+                        } else return itCursor.hasNext();
+                    }
+                } return new Impl();
+            }
+
+            @Override
+            public int length() {
+                return head.length() + tail.length();
+            }
+
+            @Override
+            public double get(int index) {
+                int headLength = head.length();
+                return index < headLength ? head.get(index) : tail.get(index - headLength);
+            }
+
+            @Override
+            public void copyInto(double[] dst, int offset) {
+                head.copyInto(dst, offset);
+                tail.copyInto(dst, offset + head.length());
+            }
 
-                /**
-                 * Watch out, hasNext here has a side-effect
-                 * on the object, which makes it tricky. The hasNext() method must be called
-                 * somehow on the nextDouble() implementation, to guarantee coherence.
+            @Override
+            public VectorView subView(int skip, int length) {
+                /*
+                    subview(a ° b, skip, length) is a subview of a, a subview of b,
+                    or the concatenation of a tail of a and a head of b.
                  */
-                @Override
-                public boolean hasNext() {
-                    if(switchOn) {
-                        boolean hasNext = itCursor.hasNext();
-                        if(! hasNext) {
-                            switchOn = false;
-                            itCursor = next.iterator();
-                            return hasNext();
-                        } return true;
-                    } else return itCursor.hasNext();
-                }
-            } return new Impl();
-        };
+                int headLength = head.length();
+                if(skip >= headLength)
+                    return tail.subView(skip - headLength, length);
+                if(skip + length <= headLength)
+                    return head.subView(skip, length);
+                int fromHead = headLength - skip;
+                return head.subView(skip, fromHead).then(tail.subView(0, length - fromHead));
+            }
+        }
+        return new Concatenation(this, next);
     }
 
     default VectorView subView(int skip, int length) {
@@ -96,6 +158,16 @@ public interface VectorView  {
                 return new Impl();
             }
 
+            @Override
+            public int length() {
+                return Math.max(0, Math.min(length, VectorView.this.length() - skip));
+            }
+
+            @Override
+            public double get(int index) {
+                return VectorView.this.get(skip + index);
+            }
+
             @Override
             public VectorView subView(int s, int l) {
                 /*
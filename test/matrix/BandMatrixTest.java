@@ -0,0 +1,135 @@
+package matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static matrix.Matrix.ofTable;
+import static matrix.TestMatrices.assertClose;
+import static org.junit.Assert.*;
+
+public class BandMatrixTest {
+
+    @Test
+    public void band_shouldReadAsDense_givenBandwidths() {
+        var M = ofTable(new double[][]{
+                { 1, 2, 0, 0 },
+                { 3, 4, 5, 0 },
+                { 6, 7, 8, 9 },
+                { 0, 1, 2, 3 },
+                { 0, 0, 4, 5 }
+        });
+        var band = BandMatrix.copyOf(M, 2, 1);
+
+        assertEquals(5 * 4, band.data().length);
+        assertClose(M.materialize(), band.materialize());
+        assertClose(M.transpose().materialize(), band.transpose().materialize());
+        assertArrayEquals(new double[]{ 0, 5, 8, 2, 4 }, band.getColumn(2).toArray(), 0D);
+        assertArrayEquals(new double[]{ 7, 8 }, band.getRow(2).subView(1, 2).toArray(), 0D);
+        assertArrayEquals(new double[]{ 0, 0 }, band.getRow(4).subView(0, 2).toArray(), 0D);
+        assertThrows(IndexOutOfBoundsException.class, () -> band.getRow(4).get(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> band.getColumn(2).subView(3, 3));
+        assertArrayEquals(M.apply(ArraySlice.of(1, -1, 2, 0.5)).toArray(),
+                band.apply(ArraySlice.of(1, -1, 2, 0.5)).toArray(), 0D);
+        assertTrue(BandMatrix.upperTriangular(M.transpose()).isUpperTriangular());
+        assertTrue(BandMatrix.hessenberg(ofTable(new double[][]{ { 1, 2 }, { 3, 4 } })).isHessenberg());
+    }
+
+    @Test
+    public void band_shouldReadAsDense_givenWide() {
+        var tall = ofTable(new double[][]{
+                { 1, 0 },
+                { 2, 3 },
+                { 0, 4 },
+                { 0, 0 },
+                { 0, 0 }
+        });
+        var wide = BandMatrix.copyOf(tall, 1, 0).transpose();
+
+        assertEquals(2, wide.colSize());
+        assertEquals(5, wide.rowSize());
+        assertArrayEquals(new double[]{ 0, 0 }, wide.getColumn(4).toArray(), 0D);
+        assertArrayEquals(new double[]{ 0, 0 }, tall.getRow(4).toArray(), 0D);
+        assertArrayEquals(new double[]{ 0, 0 }, BandMatrix.copyOf(tall, 1, 0).getRow(4).toArray(), 0D);
+        assertClose(tall.transpose().materialize(), DenseMatrix.copyOf(wide, DenseMatrix.Layout.COLUMN_MAJOR));
+        var qr = CompactQR.of(wide);
+        assertClose(tall.transpose().materialize(), qr.formQ().composeLeft(qr.r()).materialize(), 1e-12);
+    }
+
+    @Test
+    public void band_shouldStayBanded_givenProducts() {
+        var random = new Random(2023);
+        var A = random(random, 7, 6, 1, 2);
+        var B = random(random, 6, 5, 2, 0);
+        var C = random(random, 6, 3, 5, 2).materialize();
+
+        var product = A.composeLeft(B);
+        assertTrue(product instanceof BandMatrix);
+        assertEquals(3, ((BandMatrix) product).lower());
+        assertEquals(2, ((BandMatrix) product).upper());
+        assertClose(A.materialize().composeLeft(B.materialize()).materialize(), product.materialize(), 1e-12);
+        assertClose(A.materialize().composeLeft(C).materialize(), A.composeLeft(C).materialize(), 1e-12);
+        assertClose(C.transpose().composeLeft(A.materialize().transpose()).materialize(),
+                C.transpose().composeLeft(A.transpose()).materialize(), 1e-12);
+    }
+
+    @Test
+    public void bandDecomposition_shouldSolve_givenBandedSystems() {
+        var random = new Random(7);
+        var A = random(random, 9, 9, 2, 1);
+        for (int i = 0; i < 9; i++) A.addToEntry(i, i, 4D);
+        var qr = new QRDecomposer(){}.bandDecomposition(A);
+
+        assertEquals(0, qr.r().lower());
+        assertEquals(3, qr.r().upper());
+        double[] x = { 1, -2, 3, 0.5, 0, 1, 2, -1, 4 };
+        assertArrayEquals(x, qr.solve(A.apply(ArraySlice.of(x))).toArray(), 1e-12);
+
+        var tall = random(random, 8, 5, 3, 1);
+        double[] b = { 1, 0, -1, 2, 3, 0.5, 1, -2 };
+        double[] y = BandQR.of(tall).solve(ArraySlice.of(b)).toArray();
+        double[] residual = tall.apply(ArraySlice.of(y)).toArray();
+        for (int i = 0; i < b.length; i++) residual[i] -= b[i];
+        assertArrayEquals(new double[5], tall.transpose().apply(ArraySlice.of(residual)).toArray(), 1e-12);
+    }
+
+    @Test
+    public void spectrum_shouldMatchDense_givenHessenbergAndTridiagonal() {
+        var solver = new EigenValueSolver() {
+            @Override
+            public double sensitivity() {
+                return 1e-12;
+            }
+
+            @Override
+            public int iterationBound() {
+                return 500;
+            }
+
+            @Override
+            public double shiftInContext(double[][] data) {
+                return 0D;
+            }
+        };
+        var H = random(new Random(11), 8, 8, 1, 7);
+        var expected = solver.spectrum(H.materialize());
+        var actual = solver.spectrum(H);
+        assertArrayEquals(expected.real(), actual.real(), 1e-10);
+        assertArrayEquals(expected.imaginary(), actual.imaginary(), 1e-10);
+
+        var T = BandMatrix.tridiagonal(new double[]{ 1, -1, 2, 0.5 }, new double[]{ 4, 1, -3, 2, 5 },
+                new double[]{ 1, -1, 2, 0.5 });
+        double[] eigenvalues = new double[5];
+        solver.flushEigenvalues(T, eigenvalues);
+        assertTrue(solver.spectrum(T).isReal());
+        assertArrayEquals(solver.spectrum(T.materialize()).real(), solver.spectrum(T).real(), 1e-10);
+        assertArrayEquals(solver.spectrum(T).real(), eigenvalues, 1e-10);
+    }
+
+    private static BandMatrix random(Random random, int colSize, int rowSize, int lower, int upper) {
+        var band = BandMatrix.zeros(colSize, rowSize, lower, upper);
+        for (int i = 0; i < colSize; i++)
+            for (int j = band.firstColumn(i); j <= band.lastColumn(i); j++) band.setEntry(i, j, random.nextGaussian());
+        return band;
+    }
+}
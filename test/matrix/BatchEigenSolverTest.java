@@ -0,0 +1,97 @@
+package matrix;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static matrix.Matrix.ofTable;
+import static org.junit.Assert.*;
+
+public class BatchEigenSolverTest {
+
+    private static final EigenValueSolver SOLVER = new EigenValueSolver() {
+        @Override
+        public double sensitivity() {
+            return 0D;
+        }
+
+        @Override
+        public int iterationBound() {
+            return 10_000;
+        }
+
+        @Override
+        public double shiftInContext(double[][] data) {
+            return 0D;
+        }
+    };
+
+    @Test
+    public void solve_shouldMatchOneByOne_givenMatricesOfVariousSizes() {
+        var generator = new Random(8);
+        var matrices = new ArrayList<Matrix>();
+        for (int k = 0; k < 200; k++) {
+            int n = 3 + generator.nextInt(20);
+            double[][] data = new double[n][n];
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    data[i][j] = generator.nextGaussian();
+            if (k % 3 == 0) {
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j < i; j++)
+                        data[j][i] = data[i][j];
+                matrices.add(SymmetricMatrix.ofTable(data));
+            } else {
+                matrices.add(k % 3 == 1 ? ofTable(data) : DenseMatrix.copyOf(ofTable(data)));
+            }
+        }
+
+        var pool = Executors.newFixedThreadPool(3);
+        try {
+            var spectra = new BatchEigenSolver(SOLVER, pool, 3).solve(matrices);
+
+            assertEquals(matrices.size(), spectra.size());
+            for (int k = 0; k < matrices.size(); k++) {
+                var expected = SOLVER.spectrum(matrices.get(k));
+                assertEquals(matrices.get(k).rowSize(), spectra.dimension(k));
+                assertArrayEquals(expected.real(), spectra.get(k).real(), 0D);
+                assertArrayEquals(expected.imaginary(), spectra.get(k).imaginary(), 0D);
+                assertTrue(spectra.iterationsLeft()[k] >= 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void solve_shouldReadPackedMatrices() {
+        double[] packed = {
+                2, 0, 0, 3,
+                0, -1, 1, 0,
+                1, 2, 2, 1
+        };
+        var spectra = BatchEigenSolver.of(SOLVER).solve(packed, 2, false);
+
+        assertEquals(3, spectra.size());
+        assertArrayEquals(new double[]{ 3, 2 }, spectra.get(0).real(), 0D);
+        assertArrayEquals(new double[]{ 1, -1 }, spectra.get(1).imaginary(), 0.000_000_001);
+        assertArrayEquals(new double[]{
+                3, 2, 0, 0,
+                0, 0, 1, -1,
+                3, -1, 0, 0
+        }, spectra.values(), 0.000_000_001);
+    }
+
+    @Test
+    public void solve_shouldAcceptStreams() {
+        var spectra = BatchEigenSolver.of(SOLVER).solve(Stream.of(
+                ofTable(new double[][]{ { 1 } }),
+                ofTable(new double[][]{ { 0, 1 }, { 1, 0 } })
+        ));
+
+        assertArrayEquals(new double[]{ 1, 0, 1, -1, 0, 0 }, spectra.values(), 0.000_000_001);
+    }
+}
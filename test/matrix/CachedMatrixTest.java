@@ -0,0 +1,84 @@
+package matrix;
+
+import org.junit.Test;
+
+import static matrix.Matrix.ofTable;
+import static org.junit.Assert.*;
+
+public class CachedMatrixTest {
+
+    @Test
+    public void cached_shouldComputeSlicesOnce_givenRepeatedReads() {
+        var reads = new int[1];
+        var cached = CachedMatrix.of(counting(reads), 1024);
+
+        for (int repeat = 0; repeat < 3; repeat++) {
+            assertArrayEquals(new double[]{ 4, 5, 6 }, cached.getRow(1).toArray(), 0.5);
+            assertArrayEquals(new double[]{ 3, 6, 9 }, cached.getColumn(2).toArray(), 0.5);
+        }
+
+        assertEquals(2, reads[0]);
+        assertEquals(2, cached.misses());
+        assertEquals(4, cached.hits());
+        assertEquals(2 * 3 * Double.BYTES, cached.cachedBytes());
+    }
+
+    @Test
+    public void cached_shouldEvictLeastRecentlyUsed_givenBudget() {
+        var reads = new int[1];
+        var cached = CachedMatrix.of(counting(reads), 2 * 3 * Double.BYTES);
+
+        cached.getRow(0);
+        cached.getRow(1);
+        cached.getRow(0); // row 1 is now the least recently used
+        cached.getRow(2);
+        assertEquals(1, cached.evictions());
+
+        cached.getRow(0);
+        assertEquals(2, cached.hits());
+        cached.getRow(1);
+        assertEquals(4, cached.misses());
+        assertTrue(cached.cachedBytes() <= 2 * 3 * Double.BYTES);
+    }
+
+    @Test
+    public void cached_shouldServeTransposeFromTheSameCache() {
+        var cached = CachedMatrix.of(counting(new int[1]), 1024);
+
+        cached.getColumn(0);
+        assertArrayEquals(new double[]{ 1, 4, 7 }, cached.transpose().getRow(0).toArray(), 0.5);
+        assertEquals(1, cached.hits());
+    }
+
+    private static Matrix counting(int[] reads) {
+        /* A 3 x 3 matrix counting the slices that are actually computed */
+        var table = ofTable(new double[][]{
+                { 1, 2, 3 },
+                { 4, 5, 6 },
+                { 7, 8, 9 }
+        });
+        return new Matrix() {
+            @Override
+            public int rowSize() {
+                return 3;
+            }
+
+            @Override
+            public int colSize() {
+                return 3;
+            }
+
+            @Override
+            public VectorView getColumn(int index) {
+                reads[0]++;
+                return table.getColumn(index);
+            }
+
+            @Override
+            public VectorView getRow(int index) {
+                reads[0]++;
+                return table.getRow(index);
+            }
+        };
+    }
+}
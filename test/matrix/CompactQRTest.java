@@ -0,0 +1,159 @@
+package matrix;
+
+import org.junit.Test;
+
+import static matrix.Matrix.ofTable;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CompactQRTest {
+
+    @Test
+    public void compactDecomposition_recoversRAndQ_givenSquare() {
+        double[][] data = {
+                { 12, -51, 4 },
+                { 6, 167, -68 },
+                { -4, 24, -41 }
+        };
+        var A = ofTable(data);
+        var qr = new QRDecomposer(){}.compactDecomposition(A);
+        var R = qr.r();
+        var Q = qr.formQ();
+
+        System.out.println("Found Q:");
+        System.out.println(Matrix.toString(Q));
+        System.out.println("Found R:");
+        System.out.println(Matrix.toString(R));
+
+        assertArrayEquals(new double[] { -14, -21, 14 }, R.getRow(0).toArray(), 0.000_001);
+        assertArrayEquals(new double[] { 0, -175, 70 }, R.getRow(1).toArray(), 0.000_001);
+        assertArrayEquals(new double[] { 0, 0, -35 }, R.getRow(2).toArray(), 0.000_001);
+
+        checkProduct(A, DenseMatrix.copyOf(Q.composeLeft(R)));
+    }
+
+    @Test
+    public void compactDecomposition_handlesRectangular_givenTall() {
+        double[][] data = {
+                { 1, 2, 0 },
+                { 3, -4, 1 },
+                { 5, 6, 2 },
+                { 7, 8, -3 },
+                { 0, 1, 1 }
+        };
+        var A = ofTable(data);
+        var qr = CompactQR.of(A);
+        var Q = qr.formQ();
+
+        assertEquals(3, qr.reflectorCount());
+        assertEquals(5, Q.colSize());
+        assertEquals(3, Q.rowSize());
+        checkProduct(A, DenseMatrix.copyOf(Q.composeLeft(qr.r())));
+
+        { // Q^T Q = Id
+            var QtQ = DenseMatrix.copyOf(Q.transpose().composeLeft(Q));
+            for (int i = 0; i < 3; i++)
+                for (int j = 0; j < 3; j++)
+                    assertEquals(i == j ? 1 : 0, QtQ.getEntry(i, j), 0.000_001);
+        }
+
+        { // Q^T applied implicitly, then Q, gives back the input
+            var B = DenseMatrix.copyOf(A, DenseMatrix.Layout.COLUMN_MAJOR);
+            qr.applyQTranspose(B);
+            for (int i = 3; i < 5; i++)
+                assertArrayEquals(new double[] { 0, 0, 0 }, B.getRow(i).toArray(), 0.000_001);
+            qr.applyQ(B);
+            checkProduct(A, B);
+        }
+    }
+
+    @Test
+    public void solve_shouldSolveEveryColumn_givenSquareSystem() {
+        var A = ofTable(new double[][]{
+                { 4, -2, 1 },
+                { 3, 6, -4 },
+                { 2, 1, 8 }
+        });
+        var X = ofTable(new double[][]{
+                { 1, 0, -2, 0.5 },
+                { 2, 1, 0, -1 },
+                { -1, 3, 1, 0 }
+        });
+        var B = A.composeLeft(X).materialize();
+
+        checkProduct(X, new QRDecomposer(){}.solve(A, B));
+        assertArrayEquals(new double[] { 1, 2, -1 }, CompactQR.of(A).solve(B.getColumn(0)).toArray(), 0.000_001);
+    }
+
+    @Test
+    public void solve_shouldMinimizeResidual_givenOverdetermined() {
+        var A = ofTable(new double[][]{
+                { 1, 1 },
+                { 1, 2 },
+                { 1, 3 },
+                { 1, 4 },
+                { 1, 5 }
+        });
+        var B = ofTable(new double[][]{
+                { 1.1, 0 },
+                { 1.9, 1 },
+                { 3.2, 0 },
+                { 3.9, 1 },
+                { 5.0, 0 }
+        });
+        var X = CompactQR.of(A).solve(B);
+
+        assertEquals(2, X.colSize());
+        assertEquals(2, X.rowSize());
+        /* The normal equations A^T (A X - B) = 0 hold at the minimum */
+        var residual = DenseMatrix.materialized(A.composeLeft(X));
+        for (int i = 0; i < 5; i++)
+            for (int j = 0; j < 2; j++) residual.addToEntry(i, j, -B.getRow(i).get(j));
+        var normal = A.transpose().composeLeft(residual).materialize();
+        for (int i = 0; i < 2; i++) assertArrayEquals(new double[] { 0, 0 }, normal.getRow(i).toArray(), 0.000_001);
+        assertEquals(0.98, X.getEntry(1, 0), 0.000_001);
+    }
+
+    @Test
+    public void singleDecomposition_recoversRAndQ_toFloatPrecision() {
+        double[][] data = {
+                { 12, -51, 4 },
+                { 6, 167, -68 },
+                { -4, 24, -41 },
+                { 1, 0, 2 }
+        };
+        var A = ofTable(data);
+        var qr = new QRDecomposer(){}.singleDecomposition(A);
+        var Q = qr.formQ();
+
+        assertEquals(3, qr.reflectorCount());
+        assertEquals(4, Q.colSize());
+        assertEquals(3, Q.rowSize());
+
+        { // Same factors as in double precision, to about seven digits of the norm (about 200)
+            var expected = CompactQR.of(A);
+            var R = qr.r();
+            for (int i = 0; i < 3; i++)
+                assertArrayEquals(expected.r().getRow(i).toArray(), R.getRow(i).toArray(), 200 * 1e-6);
+            var QR = DenseMatrix.copyOf(Q.composeLeft(R));
+            for (int i = 0; i < 4; i++)
+                assertArrayEquals(A.getRow(i).toArray(), QR.getRow(i).toArray(), 200 * 1e-6);
+        }
+
+        { // Q^T Q = Id
+            var QtQ = DenseMatrix.copyOf(Q.transpose().composeLeft(Q));
+            for (int i = 0; i < 3; i++)
+                for (int j = 0; j < 3; j++)
+                    assertEquals(i == j ? 1 : 0, QtQ.getEntry(i, j), 1e-6);
+        }
+    }
+
+    private static void checkProduct(Matrix expected, Matrix actual) {
+        for (int i = 0; i < expected.colSize(); i++)
+            assertArrayEquals("Comparing row %d".formatted(i),
+                    expected.getRow(i).toArray(), actual.getRow(i).toArray(),
+                    0.000_001
+            );
+    }
+
+}
@@ -0,0 +1,103 @@
+package matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static matrix.Matrix.ofTable;
+import static org.junit.Assert.*;
+
+public class DenseMatrixTest {
+
+    @Test
+    public void copyOf_keepsEntries_givenBothLayouts() {
+        double[][] data = {
+                {1, 2},
+                {3, 4},
+                {5, 6}
+        };
+        var A = ofTable(data);
+        for (var layout : DenseMatrix.Layout.values()) {
+            var dense = DenseMatrix.copyOf(A, layout);
+
+            assertEquals(3, dense.colSize());
+            assertEquals(2, dense.rowSize());
+            assertArrayEquals(new double[]{1, 2}, dense.getRow(0).toArray(), 0.5);
+            assertArrayEquals(new double[]{5, 6}, dense.getRow(2).toArray(), 0.5);
+            assertArrayEquals(new double[]{2, 4, 6}, dense.getColumn(1).toArray(), 0.5);
+        }
+    }
+
+    @Test
+    public void transpose_sharesTheBuffer() {
+        var dense = DenseMatrix.copyOf(ofTable(new double[][]{
+                {1, 2, 3},
+                {4, 5, 6}
+        }));
+        var transposed = dense.transpose();
+
+        assertSame(dense.data(), transposed.data());
+        assertEquals(3, transposed.colSize());
+        assertEquals(2, transposed.rowSize());
+        assertArrayEquals(new double[]{3, 6}, transposed.getRow(2).toArray(), 0.5);
+
+        transposed.setEntry(2, 0, 42);
+        assertEquals(42, dense.getEntry(0, 2), 0.5);
+    }
+
+    @Test
+    public void subMatrix_isAViewWithLeadingDimension() {
+        var dense = DenseMatrix.copyOf(ofTable(new double[][]{
+                {1, 2, 3},
+                {4, 5, 6},
+                {7, 8, 9}
+        }));
+        var sub = dense.subMatrix(1, 1, 2, 2);
+
+        assertEquals(3, sub.leadingDimension());
+        assertArrayEquals(new double[]{5, 6}, sub.getRow(0).toArray(), 0.5);
+        assertArrayEquals(new double[]{6, 9}, sub.getColumn(1).toArray(), 0.5);
+
+        sub.setEntry(1, 1, -9);
+        assertEquals(-9, dense.getEntry(2, 2), 0.5);
+        assertArrayEquals(new double[]{5, 6, 8, -9}, sub.copy().data(), 0.5);
+    }
+
+    @Test
+    public void materialize_shouldMatchNaiveProduct_givenEdgeSizesAndLayouts() {
+        /* Sizes that are not multiples of the register or cache tiles, and a depth crossing a cache tile */
+        var generator = new Random(1234);
+        int m = 67, depth = 301, n = 13;
+        double[][] a = new double[m][depth], b = new double[depth][n];
+        for (var row : a) for (int j = 0; j < depth; j++) row[j] = generator.nextGaussian();
+        for (var row : b) for (int j = 0; j < n; j++) row[j] = generator.nextGaussian();
+
+        for (var layout : DenseMatrix.Layout.values()) {
+            var A = DenseMatrix.copyOf(ofTable(a), layout);
+            var B = DenseMatrix.copyOf(ofTable(b), layout.flip());
+            var C = DenseMatrix.materialized(A.composeLeft(B));
+
+            for (int i = 0; i < m; i++)
+                for (int j = 0; j < n; j++) {
+                    double expected = 0D;
+                    for (int k = 0; k < depth; k++) expected += a[i][k] * b[k][j];
+                    assertEquals(expected, C.getEntry(i, j), 0.000_000_001);
+                }
+        }
+    }
+
+    @Test
+    public void materialize_shouldEvaluateNestedLazyProducts() {
+        var A = ofTable(new double[][]{
+                {1, 2},
+                {3, 4}
+        });
+        /* (A^T * A) * A^T, where A^T is a lazy transpose */
+        var P = A.transpose().composeLeft(A).composeLeft(A.transpose()).materialize();
+
+        assertArrayEquals(new double[]{ 38, 86 }, P.getRow(0).toArray(), 0.000_1);
+        assertArrayEquals(new double[]{ 54, 122 }, P.getRow(1).toArray(), 0.000_1);
+        assertSame(P, P.materialize());
+    }
+
+}
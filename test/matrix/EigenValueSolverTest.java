@@ -2,12 +2,15 @@ package matrix;
 
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Random;
 
 import static java.lang.Math.*;
 import static matrix.Matrix.ofTable;
-import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.*;
 
 public class EigenValueSolverTest {
 
@@ -49,6 +52,357 @@ public class EigenValueSolverTest {
         test(data, 300, 0.000_1, eigenvalues);
     }
 
+    @Test
+    public void eigenValues_shouldDeflate_givenBlockDiagonal() {
+        double[][] data = {
+                { 2, 1, 0, 0, 0 },
+                { 1, 3, 0, 0, 0 },
+                { 0, 0, 5, 0, 1 },
+                { 0, 0, 0, 4, 0 },
+                { 0, 0, 1, 0, 6 }
+        };
+        double[] eigenvalues = new double[] {
+                (11 + sqrt(5)) / 2, (11 - sqrt(5)) / 2, 4, (5 + sqrt(5)) / 2, (5 - sqrt(5)) / 2
+        };
+
+        test(data, 100, 0.000_1, eigenvalues);
+    }
+
+    @Test
+    public void eigenValues_shouldReuseShiftTable_withinBlock() {
+        double[][] data = {
+                { 12, -51, 4 },
+                { 6, 167, -68 },
+                { -4, 24, -41 }
+        };
+        var tables = Collections.newSetFromMap(new IdentityHashMap<double[][], Boolean>());
+        var calls = new int[1];
+        var solver = new EigenValueSolver() {
+            @Override
+            public double sensitivity() {
+                return 0.000_1;
+            }
+
+            @Override
+            public int iterationBound() {
+                return 100;
+            }
+
+            @Override
+            public double shiftInContext(double[][] data) {
+                calls[0]++;
+                tables.add(data);
+                return wilkinsonShift(data, 0);
+            }
+        };
+        solver.flushEigenvalues(ofTable(data), new double[3]);
+
+        /* One table per block of size two or more: the whole matrix, then at most one split */
+        assertTrue(calls[0] > 2);
+        assertTrue(tables.size() <= 2);
+    }
+
+    @Test
+    public void spectrum_shouldFindConjugatePairs_givenCompanionMatrix() {
+        /* Companion matrix of (x^2 + 1)(x^2 - 2x + 5) = x^4 - 2x^3 + 6x^2 - 2x + 5 */
+        double[][] data = {
+                { 2, -6, 2, -5 },
+                { 1, 0, 0, 0 },
+                { 0, 1, 0, 0 },
+                { 0, 0, 1, 0 }
+        };
+        var spectrum = solver(100, 0.000_000_1).spectrum(ofTable(data));
+
+        System.out.println("Spectrum");
+        System.out.println(Arrays.toString(spectrum.real()));
+        System.out.println(Arrays.toString(spectrum.imaginary()));
+
+        assertFalse(spectrum.isReal());
+        assertTrue(spectrum.iterationsLeft() >= 0);
+        assertArrayEquals(new double[] { 1, 1, 0, 0 }, spectrum.real(), 0.000_001);
+        assertArrayEquals(new double[] { 2, -2, 1, -1 }, spectrum.imaginary(), 0.000_001);
+    }
+
+    @Test
+    public void spectrum_shouldKeepPairsTogether_givenEqualModuli() {
+        /* Two blocks whose eigenvalues 1 +- 2i and 2 +- i all share the modulus sqrt(5) */
+        double[][] data = {
+                { 1, -2, 0, 0 },
+                { 2, 1, 0, 0 },
+                { 0, 0, 2, -1 },
+                { 0, 0, 1, 2 }
+        };
+        var spectrum = solver(100, 0.000_000_1).spectrum(ofTable(data));
+
+        assertArrayEquals(new double[] { 2, 2, 1, 1 }, spectrum.real(), 0.000_001);
+        assertArrayEquals(new double[] { 1, -1, 2, -2 }, spectrum.imaginary(), 0.000_001);
+    }
+
+    @Test
+    public void spectrum_shouldAgreeWithFlush_givenRealEigenvalues() {
+        double[][] data = {
+                { 12, -51, 4, 0, 0 },
+                { -51, 167, -68, 1, -12 },
+                { 4, -68, -41, 7, 4 },
+                { 0, 1, 7, 4, 56 },
+                { 0, -12, 4 , 56, 30}
+        };
+        var spectrum = solver(100, 0.000_000_1).spectrum(ofTable(data));
+
+        assertTrue(spectrum.isReal());
+        assertArrayEquals(new double[] { 201.562, 73.976, -64.376, -39.494, 0.331 }, spectrum.real(), 0.001);
+    }
+
+    @Test
+    public void eigenValues_shouldUseTridiagonalQL_givenSymmetricMatrix() {
+        double[][] data = {
+                { 12, -51, 4, 0, 0 },
+                { -51, 167, -68, 1, -12 },
+                { 4, -68, -41, 7, 4 },
+                { 0, 1, 7, 4, 56 },
+                { 0, -12, 4 , 56, 30}
+        };
+        double[] eigenvalues = new double[5];
+        var A = SymmetricMatrix.ofTable(data);
+        var iterationsLeft = solver(30, 0.000_000_1).flushEigenvalues(A, eigenvalues);
+
+        System.out.println(Arrays.toString(eigenvalues));
+        System.out.printf("Took %d sweeps to iterate the process%n", 30 - iterationsLeft);
+
+        assertTrue(iterationsLeft >= 0);
+        assertArrayEquals(new double[] { 201.562, 73.976, -64.376, -39.494, 0.331 }, eigenvalues, 0.001);
+
+        var spectrum = solver(30, 0.000_000_1).spectrum(A);
+        assertTrue(spectrum.isReal());
+        assertArrayEquals(eigenvalues, spectrum.real(), 0.000_001);
+    }
+
+    @Test
+    public void spectrum_shouldMatchSequential_givenParallelism() {
+        /* Four independent random blocks of size 25 on the diagonal */
+        var generator = new Random(6466585);
+        double[][] data = new double[100][100];
+        for(int b = 0; b < 100; b += 25)
+            for(int i = b; i < b + 25; i++)
+                for(int j = b; j < b + 25; j++)
+                    data[i][j] = generator.nextGaussian();
+
+        var sequential = solver(10_000, 0D, 1).spectrum(ofTable(data));
+        var parallel = solver(10_000, 0D, 4).spectrum(ofTable(data));
+
+        assertTrue(parallel.iterationsLeft() >= 0);
+        assertArrayEquals(sequential.real(), parallel.real(), 0D);
+        assertArrayEquals(sequential.imaginary(), parallel.imaginary(), 0D);
+    }
+
+    @Test
+    public void spectrum_shouldApproximateDouble_givenSinglePrecision() {
+        var generator = new Random(31);
+        double[][] data = new double[60][60];
+        for(var row: data) for(int j = 0; j < row.length; j++) row[j] = generator.nextGaussian();
+
+        var reference = solver(10_000, 0D).spectrum(ofTable(data));
+        var single = solver(10_000, 0D).spectrum(ofTable(data), EigenValueSolver.Precision.SINGLE);
+
+        assertTrue(single.iterationsLeft() >= 0);
+        assertArrayEquals(reference.real(), single.real(), 0.000_1 * 60);
+        assertArrayEquals(reference.imaginary(), single.imaginary(), 0.000_1 * 60);
+    }
+
+    @Test
+    public void spectrum_shouldRefineToDouble_givenMixedPrecision() {
+        var generator = new Random(32);
+        double[][] data = new double[60][60];
+        for(var row: data) for(int j = 0; j < row.length; j++) row[j] = generator.nextGaussian();
+
+        var reference = solver(10_000, 0D).spectrum(ofTable(data));
+        var mixed = solver(10_000, 0D).spectrum(ofTable(data), EigenValueSolver.Precision.MIXED);
+
+        assertFalse(reference.isReal());
+        assertArrayEquals(reference.real(), mixed.real(), 0.000_000_000_1);
+        assertArrayEquals(reference.imaginary(), mixed.imaginary(), 0.000_000_000_1);
+    }
+
+    @Test
+    public void spectrum_shouldRefineCompanionRoots_givenMixedPrecision() {
+        /* Companion matrix of (x^2 + 1)(x^2 - 2x + 5), whose roots are i, -i, 1 + 2i, 1 - 2i */
+        double[][] data = {
+                { 2, -6, 2, -5 },
+                { 1, 0, 0, 0 },
+                { 0, 1, 0, 0 },
+                { 0, 0, 1, 0 }
+        };
+
+        var mixed = solver(100, 0D).spectrum(ofTable(data), EigenValueSolver.Precision.MIXED);
+
+        assertArrayEquals(new double[]{ 1, 1, 0, 0 }, mixed.real(), 0.000_000_000_001);
+        assertArrayEquals(new double[]{ 2, -2, 1, -1 }, mixed.imaginary(), 0.000_000_000_001);
+    }
+
+    @Test
+    public void eigenpairs_shouldYieldEigenvectors_givenSymmetricMatrix() {
+        double[][] data = {
+                { 12, -51, 4, 0, 0 },
+                { -51, 167, -68, 1, -12 },
+                { 4, -68, -41, 7, 4 },
+                { 0, 1, 7, 4, 56 },
+                { 0, -12, 4 , 56, 30}
+        };
+        var pairs = solver(30, 0.000_000_1).eigenpairs(SymmetricMatrix.ofTable(data), true);
+        var lambda = pairs.spectrum().real();
+        var Z = pairs.vectors();
+
+        assertFalse(pairs.schurVectors());
+        assertArrayEquals(new double[] { 201.562, 73.976, -64.376, -39.494, 0.331 }, lambda, 0.001);
+        for(int k = 0; k < 5; k++)
+            for(int i = 0; i < 5; i++) {
+                double Av = 0D;
+                for(int j = 0; j < 5; j++) Av += data[i][j] * Z.getEntry(j, k);
+                assertEquals(lambda[k] * Z.getEntry(i, k), Av, 0.000_001);
+            }
+        assertOrthogonal(Z);
+    }
+
+    @Test
+    public void eigenpairs_shouldYieldSchurVectors_givenCompanionMatrix() {
+        double[][] data = {
+                { 2, -6, 2, -5 },
+                { 1, 0, 0, 0 },
+                { 0, 1, 0, 0 },
+                { 0, 0, 1, 0 }
+        };
+        var pairs = solver(100, 0.000_000_1).eigenpairs(ofTable(data), true);
+        var Z = pairs.vectors();
+
+        assertTrue(pairs.schurVectors());
+        assertArrayEquals(new double[] { 1, 1, 0, 0 }, pairs.spectrum().sorted().real(), 0.000_001);
+        assertOrthogonal(Z);
+
+        /* T = Z^T A Z is quasi upper-triangular: nothing below the subdiagonal, and no two consecutive subdiagonal entries */
+        double[][] T = new double[4][4];
+        for(int i = 0; i < 4; i++)
+            for(int j = 0; j < 4; j++)
+                for(int k = 0; k < 4; k++)
+                    for(int l = 0; l < 4; l++)
+                        T[i][j] += Z.getEntry(k, i) * data[k][l] * Z.getEntry(l, j);
+        for(int i = 0; i < 4; i++)
+            for(int j = 0; j < i - 1; j++)
+                assertEquals(0D, T[i][j], 0.000_001);
+        for(int i = 1; i < 3; i++)
+            assertTrue(abs(T[i][i - 1]) < 0.000_001 || abs(T[i + 1][i]) < 0.000_001);
+    }
+
+    @Test
+    public void spectrumInPlace_shouldNotAllocate_afterWarmUp() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if(!threads.isThreadAllocatedMemorySupported()) return;
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        int n = 12;
+        var generator = new Random(77);
+        double[][] data = new double[n][n];
+        double[] general = new double[n * n], symmetric = new double[n * n];
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < n; j++) {
+                data[i][j] = general[i * n + j] = generator.nextGaussian();
+                symmetric[i * n + j] = symmetric[j * n + i] = general[i * n + j];
+            }
+        var solver = solver(10_000, 0D);
+        var workspace = new EigenWorkspace(n);
+        var work = workspace.square(n);
+
+        System.arraycopy(general, 0, work.data(), 0, n * n);
+        solver.spectrumInPlace(work, false, workspace);
+        var expected = solver.spectrum(ofTable(data));
+        assertArrayEquals(expected.real(), Arrays.copyOf(workspace.real(), n), 0D);
+        assertArrayEquals(expected.imaginary(), Arrays.copyOf(workspace.imaginary(), n), 0D);
+
+        /* Vectors of the Vector API are objects until the JIT compiles them away: vector kernels warm up longer */
+        boolean vector = Kernels.current().getClass() != ScalarKernels.class;
+        try {
+            Kernels.select(false);
+            assertEquals(0L, allocatedBytes(threads, solver, workspace, general, symmetric, 20_000));
+            if(Kernels.select(true))
+                assertEquals(0L, allocatedBytes(threads, solver, workspace, general, symmetric, 100_000));
+        } finally {
+            Kernels.select(vector);
+        }
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads, EigenValueSolver solver,
+                                       EigenWorkspace workspace, double[] general, double[] symmetric, int rounds) {
+        /* Bytes allocated by the last thousand of the given rounds, each solving both matrices in place */
+        var work = workspace.square((int) sqrt(general.length));
+        long allocated = 0L;
+        for(int round = 0; round < rounds; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            System.arraycopy(general, 0, work.data(), 0, general.length);
+            solver.spectrumInPlace(work, false, workspace);
+            System.arraycopy(symmetric, 0, work.data(), 0, symmetric.length);
+            solver.spectrumInPlace(work, true, workspace);
+            if(round >= rounds - 1_000) allocated += threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        return allocated;
+    }
+
+    @Test
+    public void spectrumInPlace_shouldSortAsSpectrum_givenEqualModuli() {
+        /* Two blocks whose eigenvalues 1 +- 2i and 2 +- i all share the modulus sqrt(5) */
+        double[][] data = {
+                { 1, -2, 0, 0 },
+                { 2, 1, 0, 0 },
+                { 0, 0, 2, -1 },
+                { 0, 0, 1, 2 }
+        };
+        var solver = solver(100, 0D);
+        var workspace = new EigenWorkspace(4);
+        var work = workspace.square(4);
+        for(int i = 0; i < 4; i++) System.arraycopy(data[i], 0, work.data(), 4 * i, 4);
+
+        solver.spectrumInPlace(work, false, workspace);
+
+        assertArrayEquals(new double[] { 2, 2, 1, 1 }, Arrays.copyOf(workspace.real(), 4), 0.000_001);
+        assertArrayEquals(new double[] { 1, -1, 2, -2 }, Arrays.copyOf(workspace.imaginary(), 4), 0.000_001);
+    }
+
+    private static void assertOrthogonal(DenseMatrix Z) {
+        int n = Z.rowSize();
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < n; j++) {
+                double dot = 0D;
+                for(int k = 0; k < n; k++) dot += Z.getEntry(k, i) * Z.getEntry(k, j);
+                assertEquals(i == j ? 1D : 0D, dot, 0.000_000_001);
+            }
+    }
+
+    private static EigenValueSolver solver(int iterationBound, double sensitivity) {
+        return solver(iterationBound, sensitivity, 1);
+    }
+
+    private static EigenValueSolver solver(int iterationBound, double sensitivity, int parallelism) {
+        return new EigenValueSolver() {
+            @Override
+            public int parallelism() {
+                return parallelism;
+            }
+
+            @Override
+            public double sensitivity() {
+                return sensitivity;
+            }
+
+            @Override
+            public int iterationBound() {
+                return iterationBound;
+            }
+
+            @Override
+            public double shiftInContext(double[][] data) {
+                return 0D;
+            }
+        };
+    }
+
     private void test(double[][] data, int iterationBound, double sensitivity, double[] expectations) {
         var generator = new Random(6466585);
         double[] eigenvalues = new double[expectations.length];
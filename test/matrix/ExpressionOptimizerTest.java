@@ -0,0 +1,107 @@
+package matrix;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static matrix.Matrix.ofTable;
+import static matrix.TestMatrices.assertClose;
+import static matrix.TestMatrices.random;
+import static org.junit.Assert.*;
+
+public class ExpressionOptimizerTest {
+
+    @Test
+    public void optimize_shouldPickCheapestOrder_givenChainOfThree() {
+        /* (10 x 100) * (100 x 5) * (5 x 50): (AB)C costs 7 500 multiplications, A(BC) costs 75 000 */
+        var A = random(10, 100, 1);
+        var B = random(100, 5, 2);
+        var C = random(5, 50, 3);
+        var optimized = (ProductOfTwo) ExpressionOptimizer.optimize(A.composeLeft(B.composeLeft(C)));
+
+        assertSame(C, optimized.right());
+        assertTrue(optimized.left() instanceof ProductOfTwo);
+        assertClose(naive(naive(A, B), C), A.composeLeft(B.composeLeft(C)).materialize(), 0.000_000_001);
+    }
+
+    @Test
+    public void optimize_shouldCancelDoubleTransposes() {
+        var A = ofTable(new double[][]{
+                {1, 2},
+                {3, 4}
+        });
+
+        var B = ofTable(new double[][]{
+                {5, 6},
+                {7, 8}
+        });
+
+        assertSame(A, ExpressionOptimizer.optimize(A.transpose().transpose()));
+        /* (A^T B)^T = B^T (A^T)^T = B^T A */
+        assertEquals(
+                List.of(new ExpressionOptimizer.Factor(B, true), new ExpressionOptimizer.Factor(A, false)),
+                ExpressionOptimizer.flatten(A.transpose().composeLeft(B).transpose())
+        );
+    }
+
+    @Test
+    public void evaluate_shouldReadSharedFactorsOnce_givenConjugation() {
+        int n = 6;
+        var generator = new Random(42);
+        double[][] q = new double[n][n], a = new double[n][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++) {
+                q[i][j] = generator.nextGaussian();
+                a[i][j] = generator.nextGaussian();
+            }
+        var reads = new int[1];
+        CoordinatesBased Q = new CoordinatesBased() {
+            @Override
+            public double getEntry(int rowIndex, int colIndex) {
+                reads[0]++;
+                return q[rowIndex][colIndex];
+            }
+
+            @Override
+            public int rowSize() {
+                return n;
+            }
+
+            @Override
+            public int colSize() {
+                return n;
+            }
+        };
+        var A = ofTable(a);
+
+        var QAQt = Q.composeLeft(A).composeLeft(Q.transpose()).materialize();
+
+        assertEquals(n * n, reads[0]);
+        assertClose(naive(naive(ofTable(q), A), ofTable(q).transpose()), QAQt, 0.000_000_001);
+    }
+
+    @Test
+    public void evaluate_shouldMatchNaive_givenTransposedDenseLeaves() {
+        var Q = DenseMatrix.copyOf(random(7, 7, 5));
+        var A = random(7, 3, 6);
+        var expression = Q.transpose().composeLeft(A).composeLeft(A.transpose().composeLeft(Q));
+
+        assertClose(naive(naive(naive(Q.transpose(), A), A.transpose()), Q), ExpressionOptimizer.evaluate(expression),
+                0.000_000_001);
+    }
+
+    private static DenseMatrix naive(Matrix A, Matrix B) {
+        var C = DenseMatrix.zeros(A.colSize(), B.rowSize());
+        for (int i = 0; i < A.colSize(); i++) {
+            var row = A.getRow(i).toArray();
+            for (int j = 0; j < B.rowSize(); j++) {
+                var column = B.getColumn(j).toArray();
+                double s = 0D;
+                for (int k = 0; k < row.length; k++) s += row[k] * column[k];
+                C.setEntry(i, j, s);
+            }
+        }
+        return C;
+    }
+}
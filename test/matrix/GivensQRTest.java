@@ -0,0 +1,101 @@
+package matrix;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static matrix.Matrix.ofTable;
+import static org.junit.Assert.*;
+
+public class GivensQRTest {
+
+    private static final double[][] DATA = {
+            { 2, -1, 0 },
+            { 1, 3, 2 },
+            { 0, 1, 4 },
+            { -2, 0, 1 },
+            { 1, 1, 1 }
+    };
+
+    @Test
+    public void update_shouldFactorNewMatrix_givenRowChanges() {
+        var qr = new QRDecomposer(){}.updatableDecomposition(ofTable(DATA));
+        check(DATA, qr);
+
+        qr = qr.appendRow(new double[] { 3, -2, 5 });
+        check(new double[][] { DATA[0], DATA[1], DATA[2], DATA[3], DATA[4], { 3, -2, 5 } }, qr);
+
+        qr = qr.removeRow(1);
+        check(new double[][] { DATA[0], DATA[2], DATA[3], DATA[4], { 3, -2, 5 } }, qr);
+    }
+
+    @Test
+    public void update_shouldFactorNewMatrix_givenColumnChanges() {
+        var qr = GivensQR.of(ofTable(DATA)).insertColumn(1, new double[] { 1, 0, -1, 2, 3 });
+        check(new double[][] {
+                { 2, 1, -1, 0 },
+                { 1, 0, 3, 2 },
+                { 0, -1, 1, 4 },
+                { -2, 2, 0, 1 },
+                { 1, 3, 1, 1 }
+        }, qr);
+
+        qr = qr.removeColumn(2);
+        check(new double[][] {
+                { 2, 1, 0 },
+                { 1, 0, 2 },
+                { 0, -1, 4 },
+                { -2, 2, 1 },
+                { 1, 3, 1 }
+        }, qr);
+    }
+
+    @Test
+    public void update_shouldFactorNewMatrix_givenRankOneChange() {
+        double[] u = { 1, 0, -1, 2, 0.5 }, v = { 3, 1, -2 };
+        var qr = GivensQR.of(ofTable(DATA)).rankOneUpdate(u, v);
+        var expected = new double[5][3];
+        for (int i = 0; i < 5; i++)
+            for (int j = 0; j < 3; j++) expected[i][j] = DATA[i][j] + u[i] * v[j];
+        check(expected, qr);
+
+        double[] x = { 1, -1, 2 };
+        var b = ofTable(expected).apply(ArraySlice.of(x));
+        assertArrayEquals(x, qr.solve(b).toArray(), 1e-12);
+    }
+
+    @Test
+    public void update_shouldKeepNormalEquations_givenStreamWithoutQ() {
+        var random = new Random(5);
+        var rows = new double[40][4];
+        var qr = GivensQR.withoutQ(4);
+        for (var row : rows) {
+            for (int j = 0; j < 4; j++) row[j] = random.nextGaussian();
+            qr = qr.appendRow(row);
+        }
+        for (int i = 0; i < 10; i++) qr = qr.removeRow(rows[i]);
+
+        var A = ofTable(Arrays.copyOfRange(rows, 10, 40));
+        var gram = A.transpose().composeLeft(A).materialize();
+        var R = qr.r();
+        for (int i = 0; i < 4; i++)
+            for (int j = 0; j < i; j++) assertEquals(0D, R.getEntry(i, j), 0D);
+        var rtr = R.transpose().composeLeft(R).materialize();
+        for (int i = 0; i < 4; i++) assertArrayEquals(gram.getRow(i).toArray(), rtr.getRow(i).toArray(), 1e-10);
+    }
+
+    private static void check(double[][] expected, GivensQR qr) {
+        var Q = qr.q();
+        var R = qr.r();
+        assertEquals(expected.length, R.colSize());
+        assertEquals(expected[0].length, R.rowSize());
+        for (int i = 0; i < R.colSize(); i++)
+            for (int j = 0; j < Math.min(i, R.rowSize()); j++) assertEquals(0D, R.getEntry(i, j), 1e-12);
+        var QtQ = DenseMatrix.materialized(Q.transpose().composeLeft(Q));
+        for (int i = 0; i < Q.colSize(); i++)
+            for (int j = 0; j < Q.colSize(); j++) assertEquals(i == j ? 1D : 0D, QtQ.getEntry(i, j), 1e-12);
+        var QR = Q.composeLeft(R).materialize();
+        for (int i = 0; i < expected.length; i++) assertArrayEquals(expected[i], QR.getRow(i).toArray(), 1e-12);
+    }
+}
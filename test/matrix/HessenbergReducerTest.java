@@ -0,0 +1,46 @@
+package matrix;
+
+import org.junit.Test;
+
+import static matrix.Matrix.ofTable;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HessenbergReducerTest {
+
+    @Test
+    public void reduceToHessenberg_isASimilarity_givenGeneral() {
+        double[][] data = {
+                { 12, -51, 4, 0, 0 },
+                { 6, 167, -68, 1, -12 },
+                { -4, 24, -41, 14, 24 },
+                { -16, 0, 0, 4, 56 },
+                { 0, 13, 12 , 70, 30}
+        };
+        var A = ofTable(data);
+        var H = DenseMatrix.copyOf(A);
+        var reflectors = new HessenbergReducer(){}.reduceToHessenberg(H);
+
+        System.out.println("Hessenberg form of A:");
+        System.out.println(Matrix.toString(H));
+
+        assertEquals(3, reflectors.size());
+        for (int i = 2; i < 5; i++)
+            for (int j = 0; j < i - 1; j++)
+                assertEquals(0, H.getEntry(i, j), 0D);
+
+        { // A = Q H Q^T with Q = H0 * H1 * H2
+            var back = H.copy();
+            for (int k = reflectors.size() - 1; k >= 0; k--) {
+                reflectors.get(k).applyLeft(back);
+                reflectors.get(k).applyRight(back);
+            }
+            for (int i = 0; i < 5; i++)
+                assertArrayEquals("Comparing row %d".formatted(i),
+                        A.getRow(i).toArray(), back.getRow(i).toArray(),
+                        0.000_001
+                );
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package matrix;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class KernelsTest {
+
+    @Test
+    public void vectorKernels_shouldAgreeWithScalar_givenTailsAndOffsets() {
+        if (!Kernels.vectorAvailable()) return;
+        boolean vector = Kernels.current().getClass() != ScalarKernels.class;
+        try {
+            var generator = new Random(5);
+            for (int length : new int[]{ 0, 1, 3, 4, 7, 8, 9, 17, 64, 101 }) {
+                double[] x = random(generator, length + 3), y = random(generator, length + 5);
+                Kernels.select(false);
+                double scalarDot = Kernels.current().dot(x, 3, y, 5, length);
+                double[] scalarAxpy = y.clone();
+                Kernels.current().axpy(-1.5, x, 3, scalarAxpy, 5, length);
+                Kernels.select(true);
+                double vectorDot = Kernels.current().dot(x, 3, y, 5, length);
+                double[] vectorAxpy = y.clone();
+                Kernels.current().axpy(-1.5, x, 3, vectorAxpy, 5, length);
+
+                assertEquals(scalarDot, vectorDot, 1e-12 * (1 + length));
+                assertArrayEquals(scalarAxpy, vectorAxpy, 1e-14);
+
+                float[] u = toFloats(x), w = toFloats(y);
+                Kernels.select(false);
+                float scalarFloatDot = Kernels.current().dot(u, 3, w, 5, length);
+                float[] scalarFloatAxpy = w.clone();
+                Kernels.current().axpy(-1.5F, u, 3, scalarFloatAxpy, 5, length);
+                Kernels.select(true);
+                float[] vectorFloatAxpy = w.clone();
+                Kernels.current().axpy(-1.5F, u, 3, vectorFloatAxpy, 5, length);
+
+                assertEquals(scalarFloatDot, Kernels.current().dot(u, 3, w, 5, length), 1e-5F * (1 + length));
+                assertArrayEquals(scalarFloatAxpy, vectorFloatAxpy, 1e-6F);
+            }
+        } finally {
+            Kernels.select(vector);
+        }
+    }
+
+    @Test
+    public void vectorKernels_shouldAgreeWithScalar_givenProductsWithEdges() {
+        if (!Kernels.vectorAvailable()) return;
+        boolean vector = Kernels.current().getClass() != ScalarKernels.class;
+        try {
+            Kernels.select(true);
+            var generator = new Random(6);
+            for (int[] size : new int[][]{ { 1, 1, 1 }, { 4, 4, 4 }, { 5, 300, 7 }, { 67, 19, 130 } }) {
+                var a = DenseMatrix.zeros(size[0], size[1]);
+                var b = DenseMatrix.zeros(size[1], size[2]);
+                for (int i = 0; i < a.data().length; i++) a.data()[i] = generator.nextGaussian();
+                for (int i = 0; i < b.data().length; i++) b.data()[i] = generator.nextGaussian();
+                var vectorProduct = DenseMatrix.zeros(size[0], size[2]);
+                Gemm.multiply(a, b, vectorProduct);
+                Kernels.select(false);
+                var scalarProduct = DenseMatrix.zeros(size[0], size[2]);
+                Gemm.multiply(a, b, scalarProduct);
+                Kernels.select(true);
+
+                assertArrayEquals(scalarProduct.data(), vectorProduct.data(), 1e-12 * size[1]);
+            }
+        } finally {
+            Kernels.select(vector);
+        }
+    }
+
+    private static float[] toFloats(double[] values) {
+        float[] floats = new float[values.length];
+        for (int i = 0; i < values.length; i++) floats[i] = (float) values[i];
+        return floats;
+    }
+
+    private static double[] random(Random generator, int length) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) values[i] = generator.nextGaussian();
+        return values;
+    }
+}
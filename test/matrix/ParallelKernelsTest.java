@@ -0,0 +1,56 @@
+package matrix;
+
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+
+import static matrix.TestMatrices.assertClose;
+import static matrix.TestMatrices.random;
+import static org.junit.Assert.*;
+
+public class ParallelKernelsTest {
+
+    @Test
+    public void apply_shouldBeBitIdenticalToSequential_givenDeterministic() {
+        var A = random(301, 257, 1);
+        var v = ArraySlice.of(random(257, 1, 2).getColumn(0).toArray());
+        var pool = Executors.newFixedThreadPool(4);
+        try {
+            var kernels = new ParallelKernels(pool, 4, 0L, true);
+
+            assertArrayEquals(A.apply(v).toArray(), kernels.apply(A, v).toArray(), 0D);
+            var dense = A.materialize();
+            assertArrayEquals(dense.apply(v).toArray(), kernels.apply(dense, v).toArray(), 0D);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void multiply_shouldBeBitIdenticalToSequential_givenDeterministic() {
+        var A = random(130, 70, 3);
+        var B = random(70, 90, 4);
+        var sequential = A.composeLeft(B).materialize();
+
+        for (int tasks : new int[]{ 2, 3, 7 }) {
+            var kernels = new ParallelKernels(ParallelKernels.commonPool(true).executor(), tasks, 0L, true);
+            assertClose(sequential, kernels.multiply(A, B), 0D);
+            assertClose(sequential, ExpressionOptimizer.evaluate(A.composeLeft(B), kernels), 0D);
+        }
+    }
+
+    @Test
+    public void multiply_shouldSplitTheSum_givenNarrowResultAndNoDeterminism() {
+        var A = random(2, 5000, 5);
+        var B = random(5000, 3, 6);
+        var sequential = A.composeLeft(B).materialize();
+        var kernels = new ParallelKernels(ParallelKernels.commonPool(false).executor(), 8, 0L, false);
+
+        assertClose(sequential, kernels.multiply(A, B), 0.000_000_001);
+        var v = ArraySlice.of(B.getColumn(0).toArray());
+        assertArrayEquals(A.apply(v).toArray(), kernels.apply(A, v).toArray(), 0.000_000_001);
+        var lazy = A.composeLeft(B).composeLeft(B.transpose());
+        var w = ArraySlice.of(A.getRow(0).toArray());
+        assertArrayEquals(lazy.apply(w).toArray(), kernels.apply(lazy, w).toArray(), 0.000_001);
+    }
+}
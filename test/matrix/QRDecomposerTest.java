@@ -6,6 +6,7 @@ import java.util.List;
 
 import static matrix.Matrix.ofTable;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 public class QRDecomposerTest {
 
@@ -250,6 +251,60 @@ public class QRDecomposerTest {
         }
     }
 
+    @Test
+    public void triangularize_leavesRInPlace_andCompactReflectors() {
+        double[][] data = {
+                { 12, -51, 4 },
+                { 6, 167, -68 },
+                { -4, 24, -41 }
+        };
+        var A = ofTable(data);
+        var work = DenseMatrix.copyOf(A);
+        var reflectors = new QRDecomposer(){}.triangularize(work);
+
+        assertArrayEquals(new double[] { 14, 21, -14 }, work.getRow(0).toArray(), 0.000_001);
+        assertArrayEquals(new double[] { 0, -175, 70 }, work.getRow(1).toArray(), 0.000_001);
+        assertArrayEquals(new double[] { 0, 0, 35 }, work.getRow(2).toArray(), 0.000_001);
+
+        { // A = H0 * H1 * R
+            for (int i = reflectors.size() - 1; i >= 0; i--) reflectors.get(i).applyLeft(work);
+            for (int i = 0; i < 3; i++)
+                assertArrayEquals("Comparing row %d".formatted(i),
+                        A.getRow(i).toArray(), work.getRow(i).toArray(),
+                        0.000_001
+                );
+        }
+
+        { // H x = x - 2 v (v^T x)
+            var x = reflectors.get(0).apply(A.getColumn(0)).toArray();
+            assertArrayEquals(new double[] { 14, 0, 0 }, x, 0.000_001);
+        }
+    }
+
+    @Test
+    public void triangularize_shouldHandleRectangular_givenTallAndWide() {
+        double[][] data = {
+                { 1, 2, 0 },
+                { 3, -4, 1 },
+                { 5, 6, 2 },
+                { 7, 8, -3 }
+        };
+        for (var A : List.of(ofTable(data), ofTable(data).transpose())) {
+            var work = DenseMatrix.copyOf(A);
+            var reflectors = new QRDecomposer(){}.triangularize(work);
+
+            assertEquals(Math.min(A.colSize() - 1, A.rowSize()), reflectors.size());
+            for (int i = 0; i < work.colSize(); i++)
+                for (int j = 0; j < Math.min(i, work.rowSize()); j++)
+                    assertEquals(0D, work.getEntry(i, j), 0.000_001);
+
+            /* Q R = A, with Q = H0 * H1 * ... */
+            for (int k = reflectors.size() - 1; k >= 0; k--) reflectors.get(k).applyLeft(work);
+            for (int i = 0; i < A.colSize(); i++)
+                assertArrayEquals(A.getRow(i).toArray(), work.getRow(i).toArray(), 0.000_001);
+        }
+    }
+
     private Matrix QFromListOfHouseholder(List<Matrix> householderMatrices) {
         var cumul = householderMatrices.get(0);
         var it = householderMatrices.iterator(); it.next();
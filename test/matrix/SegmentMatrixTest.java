@@ -0,0 +1,90 @@
+package matrix;
+
+import jdk.incubator.foreign.ResourceScope;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+
+import static matrix.Matrix.ofTable;
+import static matrix.TestMatrices.assertClose;
+import static org.junit.Assert.*;
+
+public class SegmentMatrixTest {
+
+    @Test
+    public void segment_shouldReadAsDense_givenCopy() {
+        var M = ofTable(new double[][]{
+                { 1, 2, 3 },
+                { 4, 5, 6 }
+        });
+        try (var scope = ResourceScope.newConfinedScope()) {
+            var segment = SegmentMatrix.copyOf(M, scope);
+
+            assertClose(M.materialize(), segment.materialize());
+            assertArrayEquals(new double[]{ 4, 5, 6 }, segment.getRow(1).toArray(), 0D);
+            assertArrayEquals(new double[]{ 3, 6 }, segment.getColumn(2).toArray(), 0D);
+            assertArrayEquals(new double[]{ 2, 5 }, segment.transpose().getRow(1).toArray(), 0D);
+            assertArrayEquals(new double[]{ 5, 6 }, segment.subMatrix(1, 1, 1, 2).getRow(0).toArray(), 0D);
+            assertArrayEquals(new double[]{ 14, 32 }, segment.apply(ArraySlice.of(1, 2, 3)).toArray(), 0D);
+        }
+    }
+
+    @Test
+    public void segment_shouldMultiplyInPlace_givenProducts() {
+        var A = ofTable(new double[][]{
+                { 1, 2 },
+                { 3, 4 },
+                { 5, 6 }
+        });
+        var B = ofTable(new double[][]{
+                { 1, 0, -1 },
+                { 2, 1, 0 }
+        });
+        try (var scope = ResourceScope.newConfinedScope()) {
+            var a = SegmentMatrix.copyOf(A, scope);
+            var b = SegmentMatrix.copyOf(B, scope);
+
+            assertClose(A.composeLeft(B).materialize(), a.composeLeft(b).materialize());
+            assertClose(A.transpose().composeLeft(A).materialize(), a.transpose().composeLeft(a).materialize());
+            assertClose(A.materialize(), ExpressionOptimizer.evaluate(a));
+        }
+    }
+
+    @Test
+    public void segment_shouldRoundTripThroughFile_givenMapping() throws IOException {
+        var M = ofTable(new double[][]{
+                { 1.5, -2 },
+                { 0, 7 },
+                { 3, 1e-300 }
+        });
+        var directory = Files.createTempDirectory("matrix");
+        var file = directory.resolve("matrix.bin");
+        try {
+            SegmentMatrix.store(ofTable(new double[][]{ { 1, 2, 3, 4 }, { 5, 6, 7, 8 } }), file);
+            SegmentMatrix.store(M, file);
+            assertEquals(3L * 2 * Double.BYTES, Files.size(file));
+
+            try (var mapped = SegmentMatrix.map(file, 3, 2, FileChannel.MapMode.READ_WRITE, ResourceScope.newSharedScope())) {
+                assertClose(M.materialize(), mapped.materialize());
+                mapped.setEntry(1, 0, 42);
+                mapped.force();
+            }
+            try (var mapped = SegmentMatrix.map(file, 3, 2, FileChannel.MapMode.READ_ONLY, ResourceScope.newSharedScope())) {
+                assertEquals(42D, mapped.getEntry(1, 0), 0D);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void segment_shouldNotBeReadable_givenClosed() {
+        var segment = SegmentMatrix.allocate(2, 2);
+        assertEquals(0D, segment.getEntry(1, 1), 0D);
+        segment.close();
+        assertThrows(IllegalStateException.class, () -> segment.getEntry(1, 1));
+    }
+}
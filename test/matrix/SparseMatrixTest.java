@@ -0,0 +1,111 @@
+package matrix;
+
+import org.junit.Test;
+
+import static matrix.Matrix.ofTable;
+import static matrix.TestMatrices.assertClose;
+import static org.junit.Assert.*;
+
+public class SparseMatrixTest {
+
+    @Test
+    public void sparse_shouldReadAsDense_givenTriplets() {
+        var M = ofTable(new double[][]{
+                { 1, 0, 2, 0 },
+                { 0, 0, 0, 0 },
+                { 0, 3, 0, 4 }
+        });
+        for (var layout : DenseMatrix.Layout.values()) {
+            var sparse = SparseMatrix.ofTriplets(3, 4,
+                    new int[]{ 2, 0, 2, 0, 2, 1 },
+                    new int[]{ 3, 2, 1, 0, 3, 2 },
+                    new double[]{ 1, 2, 3, 1, 3, 0 },
+                    layout);
+
+            assertEquals(4, sparse.nonZeros());
+            assertClose(M.materialize(), sparse.materialize());
+            assertClose(M.transpose().materialize(), sparse.transpose().materialize());
+            assertClose(M.materialize(), sparse.compress(layout.flip()).materialize());
+            assertArrayEquals(new double[]{ 2, 0, 0 }, sparse.getColumn(2).toArray(), 0D);
+            assertEquals(4D, sparse.getRow(2).get(3), 0D);
+            assertEquals(0D, sparse.getRow(1).get(3), 0D);
+        }
+    }
+
+    @Test
+    public void sparse_shouldIterateNonZeros_givenRow() {
+        var sparse = SparseMatrix.copyOf(ofTable(new double[][]{
+                { 0, 5, 0, 0, 6 },
+                { 7, 0, 0, 0, 0 }
+        }), DenseMatrix.Layout.ROW_MAJOR);
+        var row = sparse.getRow(0);
+
+        assertEquals(2, row.nonZeros());
+        assertEquals(1, row.index(0));
+        assertEquals(6D, row.value(1), 0D);
+        assertArrayEquals(new double[]{ 0, 5, 0, 0, 6 }, row.toArray(), 0D);
+        assertArrayEquals(new double[]{ 0, 6 }, row.subView(3, 2).toArray(), 0D);
+        assertEquals(5 * 2 + 6 * 3, row.dot(new double[]{ 1, 2, 1, 1, 3 }), 0D);
+        assertThrows(IndexOutOfBoundsException.class, () -> row.get(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> row.subView(3, 3));
+    }
+
+    @Test
+    public void sparse_shouldApplyAsDense_givenBothLayouts() {
+        var M = ofTable(new double[][]{
+                { 0, 1.5, 0, -2 },
+                { 3, 0, 0, 0 },
+                { 0, 0, 0, 0 },
+                { 1, 1, 1, 1 },
+                { 0, -4, 0, 2 }
+        });
+        var v = ArraySlice.of(1, -1, 2, 0.5);
+        for (var layout : DenseMatrix.Layout.values()) {
+            var sparse = SparseMatrix.copyOf(M, layout);
+            assertArrayEquals(M.apply(v).toArray(), sparse.apply(v).toArray(), 1e-15);
+            assertArrayEquals(M.transpose().apply(ArraySlice.of(1, 2, 3, 4, 5)).toArray(),
+                    sparse.transpose().apply(ArraySlice.of(1, 2, 3, 4, 5)).toArray(), 1e-15);
+        }
+    }
+
+    @Test
+    public void givensDecomposition_shouldSolveLeastSquares_givenTall() {
+        var M = ofTable(new double[][]{
+                { 2, 0, 0, 1 },
+                { 0, 0, 3, 0 },
+                { 1, 4, 0, 0 },
+                { 0, 0, 1, 5 },
+                { 0, 1, 0, 0 },
+                { 3, 0, 0, 0 },
+                { 0, 2, 2, 0 }
+        });
+        var A = SparseMatrix.copyOf(M, DenseMatrix.Layout.COLUMN_MAJOR);
+        var qr = new QRDecomposer(){}.givensDecomposition(A);
+        var R = DenseMatrix.materialized(qr.r());
+
+        for (int i = 0; i < 4; i++)
+            for (int j = 0; j < i; j++) assertEquals(0D, R.getEntry(i, j), 0D);
+        var gram = M.transpose().composeLeft(M).materialize();
+        var rtr = R.transpose().composeLeft(R).materialize();
+        for (int i = 0; i < 4; i++) assertArrayEquals(gram.getRow(i).toArray(), rtr.getRow(i).toArray(), 1e-12);
+
+        double[] b = { 1, -2, 0.5, 3, 1, 0, -1 };
+        double[] x = qr.solve(ArraySlice.of(b)).toArray();
+        double[] residual = M.apply(ArraySlice.of(x)).toArray();
+        for (int i = 0; i < b.length; i++) residual[i] -= b[i];
+        assertArrayEquals(new double[4], M.transpose().apply(ArraySlice.of(residual)).toArray(), 1e-12);
+    }
+
+    @Test
+    public void givensDecomposition_shouldSolve_givenSquare() {
+        var M = ofTable(new double[][]{
+                { 4, 1, 0 },
+                { 1, 4, 1 },
+                { 0, 1, 4 }
+        });
+        var qr = SparseQR.of(SparseMatrix.copyOf(M, DenseMatrix.Layout.ROW_MAJOR));
+        double[] x = { 1, -2, 3 };
+
+        assertArrayEquals(x, qr.solve(M.apply(ArraySlice.of(x))).toArray(), 1e-14);
+    }
+}
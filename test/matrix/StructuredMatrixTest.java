@@ -0,0 +1,144 @@
+package matrix;
+
+import org.junit.Test;
+
+import static matrix.Matrix.ofTable;
+import static matrix.TestMatrices.assertClose;
+import static org.junit.Assert.*;
+
+public class StructuredMatrixTest {
+
+    private static final Matrix A = ofTable(new double[][]{
+            { 1, 2, 0 },
+            { -3, 4, 5 },
+            { 6, 0, 7 }
+    });
+
+    @Test
+    public void identity_shouldReturnOperand_givenProducts() {
+        var identity = new Identity(3);
+
+        assertSame(A, identity.composeLeft(A));
+        assertSame(A, A.composeLeft(identity));
+        assertClose(DenseMatrix.identity(3), identity.materialize());
+        assertArrayEquals(new double[]{ 0, 1, 0 }, identity.getRow(1).toArray(), 0D);
+        assertArrayEquals(new double[]{ 1, 0 }, identity.getRow(1).subView(1, 2).toArray(), 0D);
+        assertThrows(IndexOutOfBoundsException.class, () -> identity.getRow(1).get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> identity.getRow(1).subView(2, 2));
+    }
+
+    @Test
+    public void diagonalAndPermutation_shouldMatchDense_givenProducts() {
+        var D = new DiagonalMatrix(new double[]{ 2, -1, 0.5 });
+        var P = Permutation.of(2, 0, 1);
+        var dense = A.materialize();
+
+        for (var S : new Matrix[]{ D, P }) {
+            var S0 = S.materialize();
+            assertClose(naive(S0, dense), S.composeLeft(A).materialize());
+            assertClose(naive(dense, S0), A.composeLeft(S).materialize());
+            assertClose(S0.transpose().materialize(), S.transpose().materialize());
+            assertArrayEquals(S0.apply(ArraySlice.of(1, 2, 3)).toArray(), S.apply(ArraySlice.of(1, 2, 3)).toArray(), 0D);
+        }
+        for (var S : new Matrix[]{ D, P }) {
+            var S0 = S.materialize();
+            assertArrayEquals(naive(S0, dense).getRow(1).toArray(), S.composeLeft(A).getRow(1).toArray(), 0D);
+            assertArrayEquals(naive(dense, S0).getColumn(2).toArray(), A.composeLeft(S).getColumn(2).toArray(), 0D);
+        }
+        assertTrue(D.composeLeft(D) instanceof DiagonalMatrix);
+        assertTrue(P.composeLeft(P) instanceof Permutation);
+        assertClose(naive(P.materialize(), P.materialize()), P.composeLeft(P).materialize());
+        assertClose(DenseMatrix.identity(3), P.composeLeft(P.transpose()).materialize());
+        assertClose(naive(D.materialize(), P.materialize()), D.composeLeft(P).materialize());
+    }
+
+    @Test
+    public void products_shouldStayLazy_givenStructuredFactor() {
+        var B = DenseMatrix.copyOf(A);
+        var factors = new Matrix[]{
+                new DiagonalMatrix(new double[]{ 2, -1, 0.5 }),
+                Permutation.of(2, 0, 1),
+                new Embedding(ofTable(new double[][]{ { 0, 1 }, { 1, 0 } }), 3),
+                new LowRankUpdate(0.5, new double[]{ 1, -1, 2 }, new double[]{ 3, 0, 1 })
+        };
+        var left = new Matrix[factors.length];
+        var right = new Matrix[factors.length];
+        for (int k = 0; k < factors.length; k++) {
+            left[k] = B.composeLeft(factors[k]);
+            right[k] = factors[k].composeLeft(B);
+            assertTrue(left[k] instanceof ProductOfTwo);
+            assertTrue(right[k] instanceof ProductOfTwo);
+        }
+
+        B.setEntry(0, 0, 10D);
+        for (int k = 0; k < factors.length; k++) {
+            var S0 = factors[k].materialize();
+            assertClose(naive(B, S0), left[k].materialize(), 1e-14);
+            assertClose(naive(S0, B), right[k].materialize(), 1e-14);
+        }
+    }
+
+    @Test
+    public void embedding_shouldMatchDense_givenSquareBlock() {
+        var E = new Embedding(A, 5);
+        var dense = DenseMatrix.materialized(E);
+        var B = ofTable(new double[][]{
+                { 1, 0, 2, 1, 1 },
+                { 0, 1, 0, 3, 2 },
+                { 2, 2, 1, 0, -1 },
+                { 1, -1, 0, 1, 0 },
+                { 0, 3, 1, 2, 1 }
+        }).materialize();
+
+        assertEquals(1D, dense.getEntry(1, 1), 0D);
+        assertEquals(5D, dense.getEntry(3, 4), 0D);
+        assertEquals(0D, dense.getEntry(0, 3), 0D);
+        assertClose(naive(dense, B), E.composeLeft(B).materialize());
+        assertClose(naive(B, dense), B.composeLeft(E).materialize());
+        assertClose(naive(dense, dense), E.composeLeft(E).materialize());
+        assertArrayEquals(dense.apply(ArraySlice.of(1, 2, 3, 4, 5)).toArray(),
+                E.apply(ArraySlice.of(1, 2, 3, 4, 5)).toArray(), 0D);
+    }
+
+    @Test
+    public void embedding_shouldStayConsistent_givenRectangularBlock() {
+        var M = ofTable(new double[][]{
+                { 2, 4 },
+                { 6, 4 },
+                { 2, 3 }
+        });
+        var E = Matrices.upperAugmentWithIdentity(M, 5);
+        var rows = E.materialize();
+        var columns = DenseMatrix.copyOf(E, DenseMatrix.Layout.COLUMN_MAJOR);
+
+        assertClose(rows, columns);
+        assertArrayEquals(new double[]{ 0, 0, 1, 2, 4 }, rows.getRow(2).toArray(), 0D);
+        assertClose(rows.transpose().materialize(), E.transpose().materialize());
+        assertArrayEquals(rows.apply(ArraySlice.of(1, 2, 3, 4, 5)).toArray(),
+                E.apply(ArraySlice.of(1, 2, 3, 4, 5)).toArray(), 0D);
+    }
+
+    @Test
+    public void lowRankUpdate_shouldMatchDense_givenProducts() {
+        var L = new LowRankUpdate(0.5, new double[]{ 1, -1, 2 }, new double[]{ 3, 0, 1 });
+        var dense = DenseMatrix.materialized(L);
+
+        assertEquals(1D + 0.5 * 2 * 1, dense.getEntry(2, 2), 0D);
+        assertClose(naive(dense, A.materialize()), L.composeLeft(A).materialize(), 1e-14);
+        assertClose(naive(A.materialize(), dense), A.composeLeft(L).materialize(), 1e-14);
+        assertClose(dense.transpose().materialize(), L.transpose().materialize());
+        var H = Matrices.householder(new double[]{ 0.6, 0.8, 0 });
+        assertSame(H, H.transpose());
+        assertClose(DenseMatrix.identity(3), H.composeLeft(H).materialize(), 1e-15);
+        assertClose(naive(H, A), H.composeLeft(A).materialize(), 1e-15);
+        assertArrayEquals(new double[]{ -0.6, -0.8, 0 }, H.apply(ArraySlice.of(0.6, 0.8, 0)).toArray(), 1e-15);
+    }
+
+    private static DenseMatrix naive(Matrix a, Matrix b) {
+        var c = DenseMatrix.zeros(a.colSize(), b.rowSize());
+        for (int i = 0; i < a.colSize(); i++)
+            for (int j = 0; j < b.rowSize(); j++)
+                for (int k = 0; k < a.rowSize(); k++) c.addToEntry(i, j, a.getRow(i).get(k) * b.getRow(k).get(j));
+        return c;
+    }
+}
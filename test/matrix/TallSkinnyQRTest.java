@@ -0,0 +1,53 @@
+package matrix;
+
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+
+import static matrix.TestMatrices.random;
+import static org.junit.Assert.*;
+
+public class TallSkinnyQRTest {
+
+    @Test
+    public void r_shouldMatchHouseholder_givenReductionTree() {
+        var A = random(3001, 7, 1);
+        var expected = CompactQR.of(A).r();
+        var pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int leafRows : new int[]{ 7, 64, 1000, TallSkinnyQR.LEAF_ROWS }) {
+                var r = TallSkinnyQR.r(A, null, new ParallelKernels(pool, 4, 0L, true), leafRows);
+                assertEquals(7, r.colSize());
+                for (int i = 0; i < 7; i++)
+                    for (int j = 0; j < 7; j++)
+                        assertEquals(Math.signum(expected.getEntry(i, i)) * expected.getEntry(i, j),
+                                r.getEntry(i, j), 1e-10);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void leastSquares_shouldSatisfyNormalEquations_givenTallMatrix() {
+        var A = random(20_000, 5, 2);
+        var b = random(20_000, 1, 3).getColumn(0);
+        var x = TallSkinnyQR.leastSquares(A, b, ParallelKernels.commonPool(true));
+
+        double[] residual = A.apply(x).toArray();
+        double[] entries = b.toArray();
+        for (int i = 0; i < residual.length; i++) residual[i] -= entries[i];
+        assertArrayEquals(new double[5], A.transpose().apply(ArraySlice.of(residual)).toArray(), 1e-8);
+        assertArrayEquals(CompactQR.of(A).solve(b).toArray(), x.toArray(), 1e-12);
+    }
+
+    @Test
+    public void leastSquares_shouldSolve_givenSquareMatrix() {
+        var A = random(6, 6, 4);
+        var b = random(6, 1, 5).getColumn(0);
+        var x = TallSkinnyQR.leastSquares(A, b, ParallelKernels.commonPool(true));
+
+        assertArrayEquals(b.toArray(), A.apply(x).toArray(), 1e-10);
+        assertArrayEquals(CompactQR.of(A).solve(b).toArray(), x.toArray(), 1e-10);
+    }
+}
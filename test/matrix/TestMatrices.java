@@ -0,0 +1,33 @@
+package matrix;
+
+import java.util.Random;
+
+import static matrix.Matrix.ofTable;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+final class TestMatrices {
+    /* Fixtures and assertions shared by the tests of the package */
+
+    private TestMatrices() {}
+
+    static Matrix random(int rows, int cols, long seed) {
+        /* A rows x cols matrix of standard gaussian entries, drawn row after row */
+        var generator = new Random(seed);
+        double[][] data = new double[rows][cols];
+        for (var row : data) for (int j = 0; j < cols; j++) row[j] = generator.nextGaussian();
+        return ofTable(data);
+    }
+
+    static void assertClose(Matrix expected, Matrix actual) {
+        assertClose(expected, actual, 0D);
+    }
+
+    static void assertClose(Matrix expected, Matrix actual, double delta) {
+        /* Same shape, and same entries up to delta, compared row by row */
+        assertEquals(expected.colSize(), actual.colSize());
+        assertEquals(expected.rowSize(), actual.rowSize());
+        for (int i = 0; i < expected.colSize(); i++)
+            assertArrayEquals(expected.getRow(i).toArray(), actual.getRow(i).toArray(), delta);
+    }
+}
@@ -6,6 +6,8 @@ import java.util.stream.DoubleStream;
 
 import static matrix.Matrix.ofTable;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 
 public class VectorViewTest {
 
@@ -38,6 +40,14 @@ public class VectorViewTest {
         assertArrayEquals(new double[] { 3, 4, 5, 6, 7 }, view.subView(0, 8).subView(2, 5).toArray(), 0.5);
     }
 
+    @Test
+    public void subview_shouldNotOverflow_givenDenseRow() {
+        var matrix = DenseMatrix.copyOf(ofTable(new double[][] {{ 1, 2, 3 }, { 4, 5, 6 }}));
+
+        assertArrayEquals(new double[] { 2, 3 }, matrix.getRow(0).subView(1, 2).toArray(), 0D);
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.getRow(0).subView(1, 3));
+    }
+
     @Test
     public void then_shouldConcat_givenTwo() {
         var v1 = ofData(5,4,3);
@@ -49,4 +59,31 @@ public class VectorViewTest {
         assertArrayEquals(new double[] { 5, 4, 3, 2, 1 }, v.toArray(), 0.5);
     }
 
+    @Test
+    public void then_canBeSubViewed_acrossBothParts() {
+        var v = ofData(5, 4, 3).then(ofData(2, 1));
+
+        assertEquals(5, v.length());
+        assertEquals(2, v.get(3), 0.5);
+        assertArrayEquals(new double[] { 4, 3, 2 }, v.subView(1, 3).toArray(), 0.5);
+        assertArrayEquals(new double[] { 1 }, v.subView(4, 1).toArray(), 0.5);
+        assertArrayEquals(new double[] { 5, 4 }, v.subView(0, 2).toArray(), 0.5);
+    }
+
+    @Test
+    public void copyInto_writesAtOffset_givenSlices() {
+        var matrix = DenseMatrix.copyOf(ofTable(new double[][] {
+                { 1, 2, 3 },
+                { 4, 5, 6 }
+        }));
+        double[] dst = new double[6];
+        matrix.getRow(1).copyInto(dst, 1);
+        matrix.getColumn(2).copyInto(dst, 4);
+
+        assertArrayEquals(new double[] { 0, 4, 5, 6, 3, 6 }, dst, 0.5);
+        assertEquals(3, matrix.getRow(0).length());
+        assertEquals(5, matrix.getColumn(1).get(1), 0.5);
+        assertEquals(5, ofTable(new double[][] {{ 1, 2 }, { 4, 5 }}).getRow(1).get(1), 0.5);
+    }
+
 }